@@ -0,0 +1,106 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.domain.Car;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the serializers registered by {@link HazelcastSerialization} with the Java serialization used without them,
+ * for a car and for the second-level cache item of a car, which is written on each cache put and backup, and read on
+ * each cache hit without a near cache.
+ * <p>
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:exec}. The serialized size of each value is reported as the
+ * {@code bytesPerEntry} secondary result of {@link #size(Size)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HazelcastSerializationBenchmark {
+
+    @Param({ "java", "compact" })
+    private String serialization;
+
+    @Param({ "car", "cacheItem" })
+    private String value;
+
+    private InternalSerializationService serializationService;
+
+    private Object object;
+
+    private Data data;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        if ("compact".equals(serialization)) {
+            HazelcastSerialization.configure(serializationConfig);
+        }
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+        Car car = new Car().make("Volkswagen").model("Golf GTI").price(32500D);
+        car.setId(123456L);
+        car.setVersion(3L);
+        object = "car".equals(value) ? car : HibernateCacheValues.item(car, System.currentTimeMillis());
+        data = serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Data serialize() {
+        return serializationService.toData(object);
+    }
+
+    /**
+     * Runs a single iteration, as the aux counters are summed over the iterations.
+     */
+    @Benchmark
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Data size(Size size) {
+        Data serialized = serializationService.toData(object);
+        size.bytesPerEntry = serialized.totalSize();
+        return serialized;
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole blackhole) {
+        blackhole.consume(serializationService.<Object>toObject(data));
+    }
+
+    /**
+     * Reports the size of the serialized value.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+
+        public int bytesPerEntry;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HazelcastSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.cars.app.web.rest;
+
+import com.cars.app.config.KafkaProperties;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.KafkaContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the messages per second published by the request threads of {@link CarsappKafkaResource}: one message at
+ * a time waiting for its acknowledgement, as {@code /publish/{topic}}, several messages in flight, as
+ * {@code /publish/{topic}/async}, or a list of messages, as {@code /publish/{topic}/batch}.
+ * <p>
+ * The messages are sent to a single broker started by Testcontainers, with the producer settings of the application,
+ * so Docker is required.
+ * <p>
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args=KafkaPublishBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class KafkaPublishBenchmark {
+
+    private static final int MESSAGES = 100;
+
+    private KafkaContainer kafkaContainer;
+
+    private CarsappKafkaResource resource;
+
+    private List<CarsappKafkaResource.PublishMessage> messages;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kafkaContainer = new KafkaContainer("5.5.0").withNetwork(null);
+        kafkaContainer.start();
+        // As in the application.yml
+        Map<String, String> producerProps = new HashMap<>();
+        producerProps.put("bootstrap.servers", kafkaContainer.getBootstrapServers());
+        producerProps.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        producerProps.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        producerProps.put("linger.ms", "5");
+        producerProps.put("batch.size", "65536");
+        producerProps.put("compression.type", "lz4");
+        producerProps.put("max.block.ms", "2000");
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setProducer(producerProps);
+        resource = new CarsappKafkaResource(kafkaProperties);
+        messages = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            messages.add(new CarsappKafkaResource.PublishMessage(String.valueOf(i), "car " + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        resource.close();
+        kafkaContainer.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void publish() throws ExecutionException, InterruptedException {
+        for (int i = 0; i < MESSAGES; i++) {
+            resource.publish("cars", "car " + i, String.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void publishAsync() {
+        List<CompletableFuture<?>> results = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            results.add(resource.publishAsync("cars", "car " + i, String.valueOf(i)));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void publishBatch() {
+        resource.publishBatch("cars", messages).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(KafkaPublishBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,7 +1,11 @@
 package com.cars.app.config;
 
+import com.hazelcast.config.EvictionPolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Properties specific to Carsapp.
  * <p>
@@ -10,4 +14,603 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Database database = new Database();
+
+    private final Export export = new Export();
+
+    private final Bulk bulk = new Bulk();
+
+    private final QueryCache queryCache = new QueryCache();
+
+    private final Counters counters = new Counters();
+
+    private final ColumnStore columnStore = new ColumnStore();
+
+    private final TextIndex textIndex = new TextIndex();
+
+    private final Import carImport = new Import();
+
+    // Near cache of the second-level cache regions of the entities
+    private final NearCache nearCache = new NearCache();
+
+    private final Cache cache = new Cache();
+
+    private final Cluster cluster = new Cluster();
+
+    public Database getDatabase() {
+        return database;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public Counters getCounters() {
+        return counters;
+    }
+
+    public ColumnStore getColumnStore() {
+        return columnStore;
+    }
+
+    public TextIndex getTextIndex() {
+        return textIndex;
+    }
+
+    public Import getImport() {
+        return carImport;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public static class Database {
+
+        /**
+         * Whether the database compares strings ignoring case, as with the default MySQL collations.
+         * In-memory evaluations of the criteria must then do the same.
+         */
+        private boolean ignoreCase = false;
+
+        public boolean isIgnoreCase() {
+            return ignoreCase;
+        }
+
+        public void setIgnoreCase(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+        }
+    }
+
+    public static class Export {
+
+        /**
+         * Number of rows fetched per JDBC round trip when streaming an export.
+         * On MySQL this requires {@code useCursorFetch=true} on the connection.
+         */
+        private int fetchSize = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of entities written per transaction by bulk operations.
+         * Each chunk is flushed as JDBC batches of {@code hibernate.jdbc.batch_size} statements.
+         */
+        private int chunkSize = 1000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class QueryCache {
+
+        private boolean enabled = true;
+
+        private int timeToLiveSeconds = 3600;
+
+        /**
+         * Maximum number of cached query results per node.
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * Results with more ids than this are not cached.
+         */
+        private int maxIds = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getMaxIds() {
+            return maxIds;
+        }
+
+        public void setMaxIds(int maxIds) {
+            this.maxIds = maxIds;
+        }
+    }
+
+    public static class Counters {
+
+        private boolean enabled = true;
+
+        /**
+         * Width of the price buckets, counts are answered for price ranges aligned on it.
+         */
+        private double priceBucketWidth = 10000;
+
+        /**
+         * Delay in milliseconds between two recomputations of the counters from the database.
+         */
+        private long reconciliationDelay = 300000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPriceBucketWidth() {
+            return priceBucketWidth;
+        }
+
+        public void setPriceBucketWidth(double priceBucketWidth) {
+            this.priceBucketWidth = priceBucketWidth;
+        }
+
+        public long getReconciliationDelay() {
+            return reconciliationDelay;
+        }
+
+        public void setReconciliationDelay(long reconciliationDelay) {
+            this.reconciliationDelay = reconciliationDelay;
+        }
+    }
+
+    public static class ColumnStore {
+
+        private boolean enabled = false;
+
+        /**
+         * Delay in milliseconds between two reloads of the store from the database.
+         */
+        private long reloadDelay = 3600000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getReloadDelay() {
+            return reloadDelay;
+        }
+
+        public void setReloadDelay(long reloadDelay) {
+            this.reloadDelay = reloadDelay;
+        }
+    }
+
+    public static class TextIndex {
+
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of candidate ids to query by primary key, above which the {@code like} filter is used alone.
+         */
+        private int maxCandidates = 1000;
+
+        /**
+         * Delay in milliseconds between two reloads of the index from the database.
+         */
+        private long reloadDelay = 3600000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxCandidates() {
+            return maxCandidates;
+        }
+
+        public void setMaxCandidates(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+        }
+
+        public long getReloadDelay() {
+            return reloadDelay;
+        }
+
+        public void setReloadDelay(long reloadDelay) {
+            this.reloadDelay = reloadDelay;
+        }
+    }
+
+    public static class Import {
+
+        /**
+         * Number of threads parsing and validating the chunks of an import, 0 for the number of available processors.
+         */
+        private int parserThreads = 0;
+
+        /**
+         * Number of threads inserting the parsed chunks of an import, each chunk in its own transaction.
+         */
+        private int writerThreads = 2;
+
+        /**
+         * Maximum number of parsed chunks waiting to be inserted, above which parsing waits for the database.
+         */
+        private int queueCapacity = 8;
+
+        /**
+         * Delay in milliseconds between two progress reports of an import.
+         */
+        private long progressInterval = 5000;
+
+        /**
+         * Maximum number of invalid lines reported by an import, the other ones are only counted.
+         */
+        private int maxErrors = 100;
+
+        public int getParserThreads() {
+            return parserThreads;
+        }
+
+        public void setParserThreads(int parserThreads) {
+            this.parserThreads = parserThreads;
+        }
+
+        public int getWriterThreads() {
+            return writerThreads;
+        }
+
+        public void setWriterThreads(int writerThreads) {
+            this.writerThreads = writerThreads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getProgressInterval() {
+            return progressInterval;
+        }
+
+        public void setProgressInterval(long progressInterval) {
+            this.progressInterval = progressInterval;
+        }
+
+        public int getMaxErrors() {
+            return maxErrors;
+        }
+
+        public void setMaxErrors(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+    }
+
+    /**
+     * Near cache of Hazelcast maps, see the Hazelcast {@code NearCacheConfig}.
+     */
+    public static class NearCache {
+
+        private boolean enabled = false;
+
+        /**
+         * {@code BINARY} keeps the serialized entries, {@code OBJECT} the deserialized ones, which are shared by the readers.
+         */
+        private String inMemoryFormat = "BINARY";
+
+        /**
+         * Maximum number of entries per region and per member.
+         */
+        private int maxSize = 10000;
+
+        /**
+         * {@code LRU}, {@code LFU}, {@code RANDOM} or {@code NONE}, applied when the maximum size is reached.
+         */
+        private String evictionPolicy = "LRU";
+
+        /**
+         * Time in seconds after which an entry is reloaded from the cluster, 0 for no limit.
+         */
+        private int timeToLiveSeconds = 0;
+
+        /**
+         * Remove the entries changed or removed on any member, instead of keeping them until their time to live.
+         */
+        private boolean invalidateOnChange = true;
+
+        /**
+         * Also cache the entries owned by this member, which otherwise are deserialized on each read.
+         */
+        private boolean cacheLocalEntries = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getInMemoryFormat() {
+            return inMemoryFormat;
+        }
+
+        public void setInMemoryFormat(String inMemoryFormat) {
+            this.inMemoryFormat = inMemoryFormat;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public String getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(String evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public boolean isInvalidateOnChange() {
+            return invalidateOnChange;
+        }
+
+        public void setInvalidateOnChange(boolean invalidateOnChange) {
+            this.invalidateOnChange = invalidateOnChange;
+        }
+
+        public boolean isCacheLocalEntries() {
+            return cacheLocalEntries;
+        }
+
+        public void setCacheLocalEntries(boolean cacheLocalEntries) {
+            this.cacheLocalEntries = cacheLocalEntries;
+        }
+    }
+
+    /**
+     * Hazelcast cluster of the instances registered in the discovery service.
+     */
+    public static class Cluster {
+
+        /**
+         * Delay in seconds between the searches for the clusters of the instances registered since the last search,
+         * to merge with. Until then, each cluster has its own cache.
+         */
+        private int mergeDelaySeconds = 30;
+
+        public int getMergeDelaySeconds() {
+            return mergeDelaySeconds;
+        }
+
+        public void setMergeDelaySeconds(int mergeDelaySeconds) {
+            this.mergeDelaySeconds = mergeDelaySeconds;
+        }
+    }
+
+    /**
+     * Sizing of the Hazelcast maps of the caches, applied at startup and on each refresh of the configuration.
+     */
+    public static class Cache {
+
+        /**
+         * Regions by Hazelcast map configuration name: a map name, a pattern such as {@code com.cars.app.domain.*},
+         * or {@code default} for the maps matching no other configuration.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * Local tier of the Spring caches, in front of their Hazelcast maps. With the {@code OBJECT} format, the
+         * cached values are shared by the readers and must not be modified.
+         */
+        private final NearCache local = new NearCache();
+
+        private final EarlyRefresh earlyRefresh = new EarlyRefresh();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public NearCache getLocal() {
+            return local;
+        }
+
+        public EarlyRefresh getEarlyRefresh() {
+            return earlyRefresh;
+        }
+    }
+
+    /**
+     * Reload of the hot entries of the Spring caches before they expire, see
+     * {@link com.cars.app.config.hazelcast.EarlyRefreshCache}.
+     */
+    public static class EarlyRefresh {
+
+        private boolean enabled = false;
+
+        /**
+         * Weight of the duration of the loads, above 1 to reload the entries earlier, below 1 later.
+         */
+        private double beta = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getBeta() {
+            return beta;
+        }
+
+        public void setBeta(double beta) {
+            this.beta = beta;
+        }
+    }
+
+    /**
+     * Sizing of a cache region. The unset properties keep the values of the map configuration of the region.
+     */
+    public static class Region {
+
+        /**
+         * Maximum number of entries per member.
+         */
+        private Integer maxEntries;
+
+        /**
+         * Maximum percentage of the heap used by the entries, on each member, instead of a maximum number of entries.
+         */
+        private Integer maxHeapPercentage;
+
+        /**
+         * Entries evicted when the maximum size is reached, {@code LRU} by default when a maximum size is set.
+         */
+        private EvictionPolicy evictionPolicy;
+
+        /**
+         * Time in seconds after which an entry expires, 0 for no limit.
+         */
+        private Integer timeToLiveSeconds;
+
+        /**
+         * Time in seconds after which an entry which is not read or written expires, 0 for no limit.
+         */
+        private Integer maxIdleSeconds;
+
+        /**
+         * Number of copies of each entry on the other members. Only applies to the maps created after a refresh.
+         */
+        private Integer backupCount;
+
+        public Integer getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(Integer maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Integer getMaxHeapPercentage() {
+            return maxHeapPercentage;
+        }
+
+        public void setMaxHeapPercentage(Integer maxHeapPercentage) {
+            this.maxHeapPercentage = maxHeapPercentage;
+        }
+
+        public EvictionPolicy getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+        }
+
+        public Integer getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public Integer getMaxIdleSeconds() {
+            return maxIdleSeconds;
+        }
+
+        public void setMaxIdleSeconds(Integer maxIdleSeconds) {
+            this.maxIdleSeconds = maxIdleSeconds;
+        }
+
+        public Integer getBackupCount() {
+            return backupCount;
+        }
+
+        public void setBackupCount(Integer backupCount) {
+            this.backupCount = backupCount;
+        }
+    }
 }
@@ -3,6 +3,14 @@ package com.cars.app.config;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 
+import com.cars.app.config.hazelcast.DiscoveryClientDiscoveryStrategy;
+import com.cars.app.config.hazelcast.EarlyRefreshCacheManager;
+import com.cars.app.config.hazelcast.HazelcastCacheRegions;
+import com.cars.app.config.hazelcast.HazelcastSerialization;
+import com.cars.app.service.CarCountStore;
+import com.cars.app.service.CarQueryCache;
+import com.cars.app.service.CarService;
+
 import com.hazelcast.config.*;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Hazelcast;
@@ -10,6 +18,7 @@ import com.hazelcast.core.Hazelcast;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 
 import org.springframework.cache.CacheManager;
@@ -28,6 +37,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
 import javax.annotation.PreDestroy;
+import java.util.function.Function;
 
 @Configuration
 @EnableCaching
@@ -63,21 +73,28 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
+    public CacheManager cacheManager(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        ApplicationProperties.EarlyRefresh earlyRefresh = applicationProperties.getCache().getEarlyRefresh();
+        if (earlyRefresh.isEnabled()) {
+            log.debug("Starting HazelcastCacheManager with early refresh");
+            return new EarlyRefreshCacheManager(hazelcastInstance, earlyRefresh.getBeta());
+        }
         log.debug("Starting HazelcastCacheManager");
         return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
     }
 
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         log.debug("Configuring Hazelcast");
-        HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("carsapp");
+        // The instance which the Hibernate second-level cache looks up by name
+        String instanceName = env.getProperty("spring.jpa.properties.hibernate.cache.hazelcast.instance_name", "carsapp");
+        HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName(instanceName);
         if (hazelCastInstance != null) {
             log.debug("Hazelcast already initialized");
             return hazelCastInstance;
         }
         Config config = new Config();
-        config.setInstanceName("carsapp");
+        config.setInstanceName(instanceName);
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
         if (this.registration == null) {
             log.warn("No discovery service is set up, Hazelcast cannot create a cluster.");
@@ -87,33 +104,35 @@ public class CacheConfiguration {
             String serviceId = registration.getServiceId();
             log.debug("Configuring Hazelcast clustering for instanceId: {}", serviceId);
             // In development, everything goes through 127.0.0.1, with a different port
+            Function<ServiceInstance, String> memberAddress;
             if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
                 log.debug("Application is running with the \"dev\" profile, Hazelcast " +
                           "cluster will only work with localhost instances");
 
                 System.setProperty("hazelcast.local.localAddress", "127.0.0.1");
                 config.getNetworkConfig().setPort(serverProperties.getPort() + 5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = "127.0.0.1:" + (instance.getPort() + 5701);
-                    log.debug("Adding Hazelcast (dev) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                memberAddress = instance -> "127.0.0.1:" + (instance.getPort() + 5701);
             } else { // Production configuration, one host per instance all using port 5701
                 config.getNetworkConfig().setPort(5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = instance.getHost() + ":5701";
-                    log.debug("Adding Hazelcast (prod) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                memberAddress = instance -> instance.getHost() + ":5701";
             }
+            // The members are looked up in the discovery service on join and before each search for clusters to merge
+            DiscoveryClientDiscoveryStrategy.configure(config,
+                new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, serviceId, memberAddress),
+                applicationProperties.getCluster());
         }
         config.getMapConfigs().put("default", initializeDefaultMapConfig(jHipsterProperties));
 
+        // Compact serialization of the cars and of the second-level cache entries, instead of Java serialization
+        HazelcastSerialization.configure(config.getSerializationConfig());
+
         // Full reference is available at: https://docs.hazelcast.org/docs/management-center/3.9/manual/html/Deploying_and_Starting.html
         config.setManagementCenterConfig(initializeDefaultManagementCenterConfig(jHipsterProperties));
-        config.getMapConfigs().put("com.cars.app.domain.*", initializeDomainMapConfig(jHipsterProperties));
+        config.getMapConfigs().put("com.cars.app.domain.*", initializeDomainMapConfig(jHipsterProperties, applicationProperties));
+        config.getMapConfigs().put(CarQueryCache.MAP_NAME, initializeQueryCacheMapConfig(jHipsterProperties, applicationProperties));
+        config.getMapConfigs().put(CarCountStore.MAP_NAME, initializeCountStoreMapConfig(jHipsterProperties));
+        config.getMapConfigs().put(CarService.CARS_BY_ID_CACHE, initializeSpringCacheMapConfig(jHipsterProperties, applicationProperties));
+        HazelcastCacheRegions.configure(config, applicationProperties.getCache());
         return Hazelcast.newHazelcastInstance(config);
     }
 
@@ -155,9 +174,60 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
-    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
+    private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        if (applicationProperties.getNearCache().isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(applicationProperties.getNearCache()));
+        }
+        return mapConfig;
+    }
+
+    /*
+    Hibernate reads the second-level cache regions with IMap.get, which the near cache
+    serves from the local memory instead of the member owning the entry. The puts and removes
+    of Hibernate invalidate the entry in the near caches of all the members.
+    */
+    private NearCacheConfig initializeNearCacheConfig(ApplicationProperties.NearCache nearCache) {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.valueOf(nearCache.getInMemoryFormat()));
+        nearCacheConfig.setInvalidateOnChange(nearCache.isInvalidateOnChange());
+        nearCacheConfig.setCacheLocalEntries(nearCache.isCacheLocalEntries());
+        nearCacheConfig.setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds());
+        nearCacheConfig.setEvictionConfig(new EvictionConfig(nearCache.getMaxSize(), EvictionConfig.MaxSizePolicy.ENTRY_COUNT,
+            EvictionPolicy.valueOf(nearCache.getEvictionPolicy())));
+        return nearCacheConfig;
+    }
+
+    /*
+    The Spring caches read their maps with IMap.get before locking a missing key, so the near cache
+    is a local tier answering the hot keys without a remote call, nor a deserialization with the
+    OBJECT format. The puts and evictions of any member invalidate it on all the members, the
+    remote ones shortly after, as the invalidations are sent in batches.
+    */
+    private MapConfig initializeSpringCacheMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = initializeDefaultMapConfig(jHipsterProperties);
+        if (applicationProperties.getCache().getLocal().isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(applicationProperties.getCache().getLocal()));
+        }
+        return mapConfig;
+    }
+
+    private MapConfig initializeQueryCacheMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.QueryCache queryCache = applicationProperties.getQueryCache();
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setTimeToLiveSeconds(queryCache.getTimeToLiveSeconds());
+        mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.setMaxSizeConfig(new MaxSizeConfig(queryCache.getMaxEntries(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+        return mapConfig;
+    }
+
+    private MapConfig initializeCountStoreMapConfig(JHipsterProperties jHipsterProperties) {
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        // An evicted counter would be read as zero
+        mapConfig.setEvictionPolicy(EvictionPolicy.NONE);
         return mapConfig;
     }
 
@@ -171,6 +241,22 @@ public class CacheConfiguration {
         this.buildProperties = buildProperties;
     }
 
+    @Bean
+    public HazelcastCacheRegions hazelcastCacheRegions(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        return new HazelcastCacheRegions(hazelcastInstance, applicationProperties, env);
+    }
+
+    @Bean
+    HazelcastMapMetrics hazelcastMapMetrics(HazelcastInstance hazelcastInstance) {
+        return new HazelcastMapMetrics(hazelcastInstance);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public HazelcastMetricsEndpoint hazelcastMetricsEndpoint(HazelcastMapMetrics hazelcastMapMetrics) {
+        return new HazelcastMetricsEndpoint(hazelcastMapMetrics);
+    }
+
     @Bean
     public KeyGenerator keyGenerator() {
         return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
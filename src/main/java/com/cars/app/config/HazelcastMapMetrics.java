@@ -0,0 +1,290 @@
+package com.cars.app.config;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.DistributedObjectEvent;
+import com.hazelcast.core.DistributedObjectListener;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.monitor.NearCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Meters of the Hazelcast maps of this member, which hold the second-level cache regions, the Spring caches and the
+ * caches of the services, tagged with the name of the map.
+ * <p>
+ * The meters are tagged as the cache meters read by the {@code jhimetrics} endpoint, with another prefix than the
+ * meters of the Spring caches bound by Spring Boot with other tags. They are registered when a map is created, as most
+ * maps are only created on their first use, while Spring Boot only binds the maps which exist at startup. As in the Micrometer {@code HazelcastCacheMetrics},
+ * the hits are the reads of the entries owned by this member, and the misses are the other get operations.
+ * {@link HazelcastMetricsEndpoint} summarizes them with the configuration of each map.
+ */
+class HazelcastMapMetrics implements MeterBinder {
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ConcurrentMap<String, MapMeters> maps = new ConcurrentHashMap<>();
+
+    HazelcastMapMetrics(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hazelcastInstance.addDistributedObjectListener(new DistributedObjectListener() {
+            @Override
+            public void distributedObjectCreated(DistributedObjectEvent event) {
+                bindTo(registry, event.getDistributedObject());
+            }
+
+            @Override
+            public void distributedObjectDestroyed(DistributedObjectEvent event) {
+                // A map created again with the same name is a new proxy
+                MapMeters meters = maps.remove((String) event.getObjectName());
+                if (meters != null) {
+                    meters.meters.forEach(registry::remove);
+                }
+            }
+        });
+        hazelcastInstance.getDistributedObjects().forEach(object -> bindTo(registry, object));
+    }
+
+    private void bindTo(MeterRegistry registry, DistributedObject object) {
+        if (!MapService.SERVICE_NAME.equals(object.getServiceName())) {
+            return;
+        }
+        IMap<?, ?> map = (IMap<?, ?>) object;
+        MapMeters meters = new MapMeters(map);
+        // The map may be seen both by the listener and in the existing objects
+        if (maps.putIfAbsent(map.getName(), meters) != null) {
+            return;
+        }
+        map.addLocalEntryListener(meters);
+        List<Meter> registered = meters.meters;
+        String name = map.getName();
+        registered.add(FunctionCounter.builder("hazelcast.cache.gets", map, stat(LocalMapStats::getHits))
+            .description("Reads of the entries of the map owned by this member")
+            .tags("name", name, "result", "hit")
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.gets", map, stat(HazelcastMapMetrics::misses))
+            .description("Get operations on the map which did not find an entry")
+            .tags("name", name, "result", "miss")
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.puts", map, stat(LocalMapStats::getPutOperationCount))
+            .description("Put operations on the map")
+            .tag("name", name)
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.removals", map, stat(LocalMapStats::getRemoveOperationCount))
+            .description("Remove operations on the map")
+            .tag("name", name)
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.evictions", meters.evictions, LongAdder::sum)
+            .description("Entries of the map owned by this member evicted because of its maximum size")
+            .tag("name", name)
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.expirations", meters.expirations, LongAdder::sum)
+            .description("Entries of the map owned by this member removed because of their time to live")
+            .tag("name", name)
+            .register(registry));
+        registered.add(Gauge.builder("hazelcast.cache.size", map, stat(LocalMapStats::getOwnedEntryCount))
+            .description("Entries of the map owned by this member")
+            .tag("name", name)
+            .register(registry));
+        registered.add(Gauge.builder("hazelcast.cache.memory", map, stat(LocalMapStats::getOwnedEntryMemoryCost))
+            .description("Memory used by the entries of the map owned by this member")
+            .tag("name", name)
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry));
+        registered.add(latency(registry, "hazelcast.cache.gets.latency", map, LocalMapStats::getGetOperationCount, LocalMapStats::getTotalGetLatency));
+        registered.add(latency(registry, "hazelcast.cache.puts.latency", map, LocalMapStats::getPutOperationCount, LocalMapStats::getTotalPutLatency));
+        registered.add(latency(registry, "hazelcast.cache.removals.latency", map, LocalMapStats::getRemoveOperationCount, LocalMapStats::getTotalRemoveLatency));
+        if (nearCacheConfig(name) != null) {
+            bindNearCacheTo(registry, map, registered);
+        }
+    }
+
+    private void bindNearCacheTo(MeterRegistry registry, IMap<?, ?> map, List<Meter> registered) {
+        String name = map.getName();
+        registered.add(FunctionCounter.builder("hazelcast.cache.near.gets", map, nearCacheStat(NearCacheStats::getHits))
+            .description("Lookups in the near cache of the map")
+            .tags("name", name, "result", "hit")
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.near.gets", map, nearCacheStat(NearCacheStats::getMisses))
+            .description("Lookups in the near cache of the map")
+            .tags("name", name, "result", "miss")
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.near.invalidations", map, nearCacheStat(NearCacheStats::getInvalidations))
+            .description("Entries of the near cache removed because they changed in the map")
+            .tag("name", name)
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.near.evictions", map, nearCacheStat(NearCacheStats::getEvictions))
+            .description("Entries of the near cache evicted because of its maximum size")
+            .tag("name", name)
+            .register(registry));
+        registered.add(FunctionCounter.builder("hazelcast.cache.near.expirations", map, nearCacheStat(NearCacheStats::getExpirations))
+            .description("Entries of the near cache removed because of their time to live")
+            .tag("name", name)
+            .register(registry));
+        registered.add(Gauge.builder("hazelcast.cache.near.size", map, nearCacheStat(NearCacheStats::getOwnedEntryCount))
+            .description("Entries in the near cache of the map")
+            .tag("name", name)
+            .register(registry));
+        registered.add(Gauge.builder("hazelcast.cache.near.memory", map, nearCacheStat(NearCacheStats::getOwnedEntryMemoryCost))
+            .description("Memory used by the entries in the near cache of the map")
+            .tag("name", name)
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry));
+        registered.add(Gauge.builder("hazelcast.cache.near.hit.ratio", map, m -> ratio(m.getLocalMapStats().getNearCacheStats()))
+            .description("Ratio of the lookups in the near cache of the map which were hits")
+            .tag("name", name)
+            .register(registry));
+    }
+
+    private static Meter latency(MeterRegistry registry, String meterName, IMap<?, ?> map, ToLongFunction<LocalMapStats> count,
+                                ToDoubleFunction<LocalMapStats> totalMillis) {
+        return FunctionTimer.builder(meterName, map, m -> count.applyAsLong(m.getLocalMapStats()),
+            m -> totalMillis.applyAsDouble(m.getLocalMapStats()), TimeUnit.MILLISECONDS)
+            .description("Latency of the operations on the map")
+            .tag("name", map.getName())
+            .register(registry);
+    }
+
+    private static ToDoubleFunction<IMap<?, ?>> stat(ToDoubleFunction<LocalMapStats> value) {
+        return map -> value.applyAsDouble(map.getLocalMapStats());
+    }
+
+    private static ToDoubleFunction<IMap<?, ?>> nearCacheStat(ToDoubleFunction<NearCacheStats> value) {
+        return map -> {
+            NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
+            return stats == null ? 0 : value.applyAsDouble(stats);
+        };
+    }
+
+    private static long misses(LocalMapStats stats) {
+        return Math.max(0, stats.getGetOperationCount() - stats.getHits());
+    }
+
+    /**
+     * {@link NearCacheStats#getRatio()} is the ratio of the hits to the misses, not to the lookups.
+     */
+    private static double ratio(NearCacheStats stats) {
+        return stats == null ? Double.NaN : ratio(stats.getHits(), stats.getMisses());
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    private static double average(long totalMillis, long count) {
+        return count == 0 ? 0 : (double) totalMillis / count;
+    }
+
+    private NearCacheConfig nearCacheConfig(String name) {
+        return hazelcastInstance.getConfig().findMapConfig(name).getNearCacheConfig();
+    }
+
+    /**
+     * @return the statistics and the configuration of the maps of this member, by name.
+     */
+    Map<String, Map<String, Number>> summary() {
+        Map<String, Map<String, Number>> summary = new TreeMap<>();
+        maps.forEach((name, meters) -> {
+            LocalMapStats stats = meters.map.getLocalMapStats();
+            MapConfig config = hazelcastInstance.getConfig().findMapConfig(name);
+            Map<String, Number> values = new LinkedHashMap<>();
+            values.put("timeToLiveSeconds", config.getTimeToLiveSeconds());
+            values.put("maxIdleSeconds", config.getMaxIdleSeconds());
+            values.put("maxSize", config.getMaxSizeConfig().getSize());
+            values.put("size", stats.getOwnedEntryCount());
+            values.put("memory", stats.getOwnedEntryMemoryCost());
+            values.put("hits", stats.getHits());
+            values.put("misses", misses(stats));
+            putRatio(values, "hitRatio", ratio(stats.getHits(), misses(stats)));
+            values.put("puts", stats.getPutOperationCount());
+            values.put("removals", stats.getRemoveOperationCount());
+            values.put("evictions", meters.evictions.sum());
+            values.put("expirations", meters.expirations.sum());
+            values.put("getLatency.mean", average(stats.getTotalGetLatency(), stats.getGetOperationCount()));
+            values.put("getLatency.max", stats.getMaxGetLatency());
+            values.put("putLatency.mean", average(stats.getTotalPutLatency(), stats.getPutOperationCount()));
+            values.put("putLatency.max", stats.getMaxPutLatency());
+            NearCacheConfig nearCacheConfig = config.getNearCacheConfig();
+            NearCacheStats nearCacheStats = stats.getNearCacheStats();
+            if (nearCacheConfig != null && nearCacheStats != null) {
+                values.put("nearCache.timeToLiveSeconds", nearCacheConfig.getTimeToLiveSeconds());
+                values.put("nearCache.maxSize", nearCacheConfig.getEvictionConfig().getSize());
+                values.put("nearCache.size", nearCacheStats.getOwnedEntryCount());
+                values.put("nearCache.memory", nearCacheStats.getOwnedEntryMemoryCost());
+                values.put("nearCache.hits", nearCacheStats.getHits());
+                values.put("nearCache.misses", nearCacheStats.getMisses());
+                putRatio(values, "nearCache.hitRatio", ratio(nearCacheStats));
+                values.put("nearCache.invalidations", nearCacheStats.getInvalidations());
+                values.put("nearCache.evictions", nearCacheStats.getEvictions());
+                values.put("nearCache.expirations", nearCacheStats.getExpirations());
+            }
+            summary.put(name, values);
+        });
+        return summary;
+    }
+
+    /**
+     * An undefined ratio, without any lookup, is left out.
+     */
+    private static void putRatio(Map<String, Number> values, String key, double ratio) {
+        if (!Double.isNaN(ratio)) {
+            values.put(key, ratio);
+        }
+    }
+
+    /**
+     * The map and the counts of the events which its statistics do not count.
+     */
+    private static class MapMeters implements EntryEvictedListener<Object, Object>, EntryExpiredListener<Object, Object> {
+
+        private final IMap<?, ?> map;
+
+        private final List<Meter> meters = new ArrayList<>();
+
+        private final LongAdder evictions = new LongAdder();
+
+        private final LongAdder expirations = new LongAdder();
+
+        private MapMeters(IMap<?, ?> map) {
+            this.map = map;
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<Object, Object> event) {
+            evictions.increment();
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<Object, Object> event) {
+            expirations.increment();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cars.app.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.util.Map;
+
+/**
+ * {@code hazelcastmetrics} endpoint, which summarizes the statistics of each Hazelcast map of this member with its
+ * time to live and maximum sizes, in the style of the {@code jhimetrics} endpoint, to tune the cache configuration.
+ */
+@WebEndpoint(id = "hazelcastmetrics")
+public class HazelcastMetricsEndpoint {
+
+    private final HazelcastMapMetrics hazelcastMapMetrics;
+
+    HazelcastMetricsEndpoint(HazelcastMapMetrics hazelcastMapMetrics) {
+        this.hazelcastMapMetrics = hazelcastMapMetrics;
+    }
+
+    /**
+     * GET /management/hazelcastmetrics
+     * <p>
+     * Give the statistics of the Hazelcast maps.
+     *
+     * @return the statistics and the configuration of each map, by name.
+     */
+    @ReadOperation
+    public Map<String, Map<String, Number>> allMetrics() {
+        return hazelcastMapMetrics.summary();
+    }
+}
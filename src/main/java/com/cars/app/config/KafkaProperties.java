@@ -14,6 +14,10 @@ public class KafkaProperties {
 
     private Map<String, String> consumer = new HashMap<>();
 
+    /**
+     * Configuration of the producer, such as {@code linger.ms}, {@code batch.size} and {@code compression.type} for
+     * the batching of the messages.
+     */
     private Map<String, String> producer = new HashMap<>();
 
     public String getBootStrapServers() {
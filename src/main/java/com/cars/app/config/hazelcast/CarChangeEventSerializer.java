@@ -0,0 +1,56 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.event.CarChangeEvent;
+import com.cars.app.service.event.CarChangeEvent.Change;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the cars of the changes of a {@link CarChangeEvent} published on a topic with {@link CarSerializer}, which
+ * Java serialization of the event would bypass.
+ */
+public class CarChangeEventSerializer implements StreamSerializer<CarChangeEvent> {
+
+    @Override
+    public int getTypeId() {
+        return HazelcastSerialization.CAR_CHANGE_EVENT_TYPE_ID;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, CarChangeEvent event) throws IOException {
+        out.writeInt(event.getChanges().size());
+        for (Change change : event.getChanges()) {
+            out.writeObject(change.getBefore());
+            out.writeObject(change.getAfter());
+        }
+    }
+
+    @Override
+    public CarChangeEvent read(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        List<Change> changes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Car before = in.readObject();
+            Car after = in.readObject();
+            if (before == null) {
+                changes.add(Change.created(after));
+            } else if (after == null) {
+                changes.add(Change.deleted(before));
+            } else {
+                changes.add(Change.updated(before, after));
+            }
+        }
+        return new CarChangeEvent(changes);
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
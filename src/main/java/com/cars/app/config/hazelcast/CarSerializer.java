@@ -0,0 +1,68 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.domain.Car;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes the fields of a {@link Car} in a fixed order, after a mask of its {@code null} numbers, instead of the class
+ * descriptors and field names written by Java serialization.
+ */
+public class CarSerializer implements StreamSerializer<Car> {
+
+    private static final int NO_ID = 1;
+
+    private static final int NO_PRICE = 1 << 1;
+
+    private static final int NO_VERSION = 1 << 2;
+
+    @Override
+    public int getTypeId() {
+        return HazelcastSerialization.CAR_TYPE_ID;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Car car) throws IOException {
+        int nulls = (car.getId() == null ? NO_ID : 0) |
+            (car.getPrice() == null ? NO_PRICE : 0) |
+            (car.getVersion() == null ? NO_VERSION : 0);
+        out.writeByte(nulls);
+        if (car.getId() != null) {
+            out.writeLong(car.getId());
+        }
+        out.writeUTF(car.getMake());
+        out.writeUTF(car.getModel());
+        if (car.getPrice() != null) {
+            out.writeDouble(car.getPrice());
+        }
+        if (car.getVersion() != null) {
+            out.writeLong(car.getVersion());
+        }
+    }
+
+    @Override
+    public Car read(ObjectDataInput in) throws IOException {
+        int nulls = in.readByte();
+        Car car = new Car();
+        if ((nulls & NO_ID) == 0) {
+            car.setId(in.readLong());
+        }
+        car.setMake(in.readUTF());
+        car.setModel(in.readUTF());
+        if ((nulls & NO_PRICE) == 0) {
+            car.setPrice(in.readDouble());
+        }
+        if ((nulls & NO_VERSION) == 0) {
+            car.setVersion(in.readLong());
+        }
+        return car;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,124 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.config.ApplicationProperties;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.DiscoveryStrategyConfig;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.properties.PropertyDefinition;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.discovery.AbstractDiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryStrategyFactory;
+import com.hazelcast.spi.discovery.SimpleDiscoveryNode;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.util.AddressUtil;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hazelcast discovery of the members among the instances of the service registered in the Spring Cloud
+ * {@link DiscoveryClient}.
+ * <p>
+ * Hazelcast asks for the members when joining, and again before each search for other clusters to merge with, so
+ * the instances registered after this member started still end up in its cluster.
+ */
+public class DiscoveryClientDiscoveryStrategy extends AbstractDiscoveryStrategy {
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceId;
+
+    private final Function<ServiceInstance, String> memberAddress;
+
+    DiscoveryClientDiscoveryStrategy(ILogger logger, Map<String, Comparable> properties, DiscoveryClient discoveryClient,
+                                     String serviceId, Function<ServiceInstance, String> memberAddress) {
+        super(logger, properties);
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.memberAddress = memberAddress;
+    }
+
+    /**
+     * @param config  the configuration of the instance, whose members are then only discovered by the factory.
+     * @param factory the factory of the strategy.
+     * @param cluster the delays of the searches for other clusters.
+     */
+    public static void configure(Config config, Factory factory, ApplicationProperties.Cluster cluster) {
+        config.setProperty(GroupProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+        config.setProperty(GroupProperty.MERGE_FIRST_RUN_DELAY_SECONDS.getName(),
+            String.valueOf(cluster.getMergeDelaySeconds()));
+        config.setProperty(GroupProperty.MERGE_NEXT_RUN_DELAY_SECONDS.getName(),
+            String.valueOf(cluster.getMergeDelaySeconds()));
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getTcpIpConfig().setEnabled(false);
+        joinConfig.getDiscoveryConfig().addDiscoveryStrategyConfig(new DiscoveryStrategyConfig(factory));
+    }
+
+    @Override
+    public Iterable<DiscoveryNode> discoverNodes() {
+        List<DiscoveryNode> nodes = new ArrayList<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            String member = memberAddress.apply(instance);
+            AddressUtil.AddressHolder addressHolder = AddressUtil.getAddressHolder(member);
+            try {
+                nodes.add(new SimpleDiscoveryNode(new Address(addressHolder.getAddress(), addressHolder.getPort())));
+            } catch (UnknownHostException e) {
+                getLogger().warning("Ignoring the Hazelcast member " + member + " of the instance "
+                    + instance.getInstanceId() + ": " + e.getMessage());
+            }
+        }
+        getLogger().fine("Discovered Hazelcast members " + nodes);
+        return nodes;
+    }
+
+    /**
+     * Creates the strategy, as Hazelcast only accepts factories in its configuration.
+     */
+    public static class Factory implements DiscoveryStrategyFactory {
+
+        private final DiscoveryClient discoveryClient;
+
+        private final String serviceId;
+
+        private final Function<ServiceInstance, String> memberAddress;
+
+        /**
+         * @param discoveryClient the registry of the instances of the service.
+         * @param serviceId       the id of the service, whose instances are the members of the cluster.
+         * @param memberAddress   the address of the Hazelcast member of an instance, as {@code host:port}.
+         */
+        public Factory(DiscoveryClient discoveryClient, String serviceId, Function<ServiceInstance, String> memberAddress) {
+            this.discoveryClient = discoveryClient;
+            this.serviceId = serviceId;
+            this.memberAddress = memberAddress;
+        }
+
+        @Override
+        public Class<? extends DiscoveryStrategy> getDiscoveryStrategyType() {
+            return DiscoveryClientDiscoveryStrategy.class;
+        }
+
+        @Override
+        public DiscoveryStrategy newDiscoveryStrategy(DiscoveryNode discoveryNode, ILogger logger,
+                                                      Map<String, Comparable> properties) {
+            return new DiscoveryClientDiscoveryStrategy(logger, properties, discoveryClient, serviceId, memberAddress);
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getConfigurationProperties() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.cars.app.config.hazelcast;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+import com.hazelcast.spring.cache.HazelcastCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring cache of a Hazelcast map, whose hot entries are reloaded before they expire instead of being missed by all
+ * their readers at once.
+ * <p>
+ * The loads of the {@code @Cacheable(sync = true)} methods are already coalesced by {@link HazelcastCache}: a missing
+ * key is locked in the map, for all the members, while a single reader loads it and the others wait for its value.
+ * <p>
+ * On top of that, a hit on an entry loaded by this member reloads it with a probability growing as its expiration
+ * approaches, and with the time its load took, as in the XFetch algorithm of "Optimal Probabilistic Cache Stampede
+ * Prevention" (Vattani et al.). The reader which wins reloads the entry under the lock of its key, while the other
+ * readers keep getting the cached value. Only the member which loaded an entry knows how long its load took, so the
+ * other members do not reload it early.
+ */
+public class EarlyRefreshCache implements Cache {
+
+    private final Logger log = LoggerFactory.getLogger(EarlyRefreshCache.class);
+
+    private final HazelcastCache cache;
+
+    private final IMap<Object, Object> map;
+
+    private final double beta;
+
+    /**
+     * The entries loaded by this member, until they are removed from the map.
+     */
+    private final ConcurrentMap<Object, Load> loads = new ConcurrentHashMap<>();
+
+    /**
+     * @param cache the cache of the map.
+     * @param beta  the weight of the duration of the loads, above 1 to reload the entries earlier.
+     */
+    public EarlyRefreshCache(HazelcastCache cache, double beta) {
+        this.cache = cache;
+        this.map = cache.getNativeCache();
+        this.beta = beta;
+        map.addEntryListener(new LoadRemover(), false);
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public IMap<Object, Object> getNativeCache() {
+        return map;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        TimedLoader<T> loader = new TimedLoader<>(valueLoader);
+        T value = cache.get(key, loader);
+        if (loader.durationMillis >= 0) {
+            record(key, loader.durationMillis);
+            return value;
+        }
+        Load load = loads.get(key);
+        // Removed by the reader which reloads the entry, so the others do not
+        if (load != null && load.isDue(beta) && loads.remove(key, load)) {
+            return refresh(key, valueLoader, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return cache.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    private <T> T refresh(Object key, Callable<T> valueLoader, T value) {
+        // Left to the reader loading or changing the entry, if any
+        if (!map.tryLock(key)) {
+            return value;
+        }
+        try {
+            TimedLoader<T> loader = new TimedLoader<>(valueLoader);
+            T refreshed;
+            try {
+                refreshed = loader.call();
+            } catch (Exception e) {
+                log.warn("Cannot reload the entry {} of the cache {}, kept until it expires: {}", key, getName(),
+                    e.getMessage());
+                return value;
+            }
+            cache.put(key, refreshed);
+            record(key, loader.durationMillis);
+            log.debug("Reloaded the entry {} of the cache {} before it expires", key, getName());
+            return refreshed;
+        } finally {
+            map.unlock(key);
+        }
+    }
+
+    private void record(Object key, long durationMillis) {
+        EntryView<Object, Object> entry = map.getEntryView(key);
+        // Not recorded when the entry does not expire
+        if (entry != null && entry.getExpirationTime() > 0 && entry.getExpirationTime() < Long.MAX_VALUE) {
+            loads.put(key, new Load(entry.getExpirationTime(), durationMillis));
+        }
+    }
+
+    private static final class Load {
+
+        private final long expirationTime;
+
+        private final long durationMillis;
+
+        private Load(long expirationTime, long durationMillis) {
+            this.expirationTime = expirationTime;
+            this.durationMillis = durationMillis;
+        }
+
+        /**
+         * @return whether the entry should be reloaded now, which is certain once it has expired.
+         */
+        boolean isDue(double beta) {
+            double earlier = -durationMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+            return System.currentTimeMillis() + earlier >= expirationTime;
+        }
+    }
+
+    private static final class TimedLoader<T> implements Callable<T> {
+
+        private final Callable<T> valueLoader;
+
+        /**
+         * The duration of the load, or -1 when not called.
+         */
+        private long durationMillis = -1;
+
+        private TimedLoader(Callable<T> valueLoader) {
+            this.valueLoader = valueLoader;
+        }
+
+        @Override
+        public T call() throws Exception {
+            long start = System.nanoTime();
+            T value = valueLoader.call();
+            durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return value;
+        }
+    }
+
+    /**
+     * Forgets the loads of the entries removed from the map, by any member.
+     */
+    private class LoadRemover implements EntryRemovedListener<Object, Object>, EntryEvictedListener<Object, Object>,
+        EntryExpiredListener<Object, Object>, MapClearedListener, MapEvictedListener {
+
+        @Override
+        public void entryRemoved(EntryEvent<Object, Object> event) {
+            loads.remove(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<Object, Object> event) {
+            loads.remove(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<Object, Object> event) {
+            loads.remove(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            loads.clear();
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            loads.clear();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.cars.app.config.hazelcast;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.cache.HazelcastCache;
+import com.hazelcast.spring.cache.HazelcastCacheManager;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link HazelcastCacheManager} whose caches reload their hot entries before they expire, see {@link EarlyRefreshCache}.
+ */
+public class EarlyRefreshCacheManager extends HazelcastCacheManager {
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private final double beta;
+
+    /**
+     * @param hazelcastInstance the instance holding the maps of the caches.
+     * @param beta              the weight of the duration of the loads, above 1 to reload the entries earlier.
+     */
+    public EarlyRefreshCacheManager(HazelcastInstance hazelcastInstance, double beta) {
+        super(hazelcastInstance);
+        this.beta = beta;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> new EarlyRefreshCache((HazelcastCache) super.getCache(cacheName), beta));
+    }
+}
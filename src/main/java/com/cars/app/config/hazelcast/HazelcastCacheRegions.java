@@ -0,0 +1,183 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.config.ApplicationProperties;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.management.operation.UpdateMapConfigOperation;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.AbstractDistributedObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the {@link ApplicationProperties.Cache#getRegions() cache regions} to the Hazelcast map configurations.
+ * <p>
+ * At startup the regions are set in the configuration of the instance. On each refresh of the Spring Cloud
+ * configuration, after the properties are rebound, they are set again in the configuration, for the maps created
+ * later, and in the running maps of this member, as the Hazelcast Management Center does. Each member applies its
+ * own properties, so all the members must be refreshed, as with Spring Cloud Bus.
+ * <p>
+ * A removed region is not reverted: Hazelcast cannot remove a map configuration, and the settings which the region
+ * replaced are not kept, so its maps keep its settings until the members restart.
+ */
+public class HazelcastCacheRegions {
+
+    private static final String REGIONS_PROPERTY = "application.cache.regions";
+
+    private final Logger log = LoggerFactory.getLogger(HazelcastCacheRegions.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final Environment environment;
+
+    /**
+     * Names of the regions applied by the last startup or refresh.
+     */
+    private Set<String> appliedRegions;
+
+    public HazelcastCacheRegions(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties,
+                                 Environment environment) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.environment = environment;
+        this.appliedRegions = new HashSet<>(applicationProperties.getCache().getRegions().keySet());
+    }
+
+    /**
+     * @param config the configuration of the instance, which already holds the configurations of its maps.
+     * @param cache  the regions to apply.
+     */
+    public static void configure(Config config, ApplicationProperties.Cache cache) {
+        for (Map.Entry<String, ApplicationProperties.Region> region : cache.getRegions().entrySet()) {
+            MapConfig mapConfig = config.getMapConfigs().get(region.getKey());
+            if (mapConfig == null) {
+                mapConfig = newMapConfig(config, region.getKey());
+                config.addMapConfig(mapConfig);
+            }
+            apply(region.getKey(), region.getValue(), mapConfig);
+        }
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public synchronized void refresh() {
+        // Bound again, as the rebound ApplicationProperties keep the regions which are no longer in the environment
+        Map<String, ApplicationProperties.Region> regions = Binder.get(environment)
+            .bind(REGIONS_PROPERTY, Bindable.mapOf(String.class, ApplicationProperties.Region.class))
+            .orElse(Collections.emptyMap());
+        for (String removed : appliedRegions) {
+            if (!regions.containsKey(removed)) {
+                log.warn("The cache region {} was removed: its maps keep its settings until the members restart", removed);
+            }
+        }
+        appliedRegions = new HashSet<>(regions.keySet());
+        Config config = hazelcastInstance.getConfig();
+        for (Map.Entry<String, ApplicationProperties.Region> region : regions.entrySet()) {
+            try {
+                MapConfig mapConfig = config.getMapConfigs().get(region.getKey());
+                if (mapConfig == null) {
+                    // Added to the dynamic configuration, as the static one can no longer change
+                    mapConfig = newMapConfig(config, region.getKey());
+                    apply(region.getKey(), region.getValue(), mapConfig);
+                    config.addMapConfig(mapConfig);
+                } else {
+                    apply(region.getKey(), region.getValue(), mapConfig);
+                }
+            } catch (RuntimeException e) {
+                log.error("Cannot apply the cache region {}: {}", region.getKey(), e.getMessage());
+            }
+        }
+        for (DistributedObject object : hazelcastInstance.getDistributedObjects()) {
+            if (!MapService.SERVICE_NAME.equals(object.getServiceName()) || !(object instanceof AbstractDistributedObject)) {
+                continue;
+            }
+            String regionName = mapConfigName(config, object.getName());
+            ApplicationProperties.Region region = regions.get(regionName);
+            if (region != null) {
+                try {
+                    refresh((AbstractDistributedObject<?>) object, regionName, region);
+                } catch (RuntimeException e) {
+                    log.error("Cannot apply the cache region {} to the map {}: {}", regionName, object.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void refresh(AbstractDistributedObject<?> map, String regionName, ApplicationProperties.Region region) {
+        MapService mapService = (MapService) map.getService();
+        MapContainer mapContainer = mapService.getMapServiceContext().getMapContainer(map.getName());
+        MapConfig mapConfig = new MapConfig(mapContainer.getMapConfig());
+        apply(regionName, region, mapConfig);
+        // Updates the size, eviction and expiration of the map, and restarts its evictor
+        map.getOperationService()
+            .invokeOnTarget(MapService.SERVICE_NAME, new UpdateMapConfigOperation(map.getName(), mapConfig),
+                map.getNodeEngine().getThisAddress())
+            .join();
+        log.debug("Applied the cache region {} to the map {}", regionName, map.getName());
+    }
+
+    /**
+     * @return the name of the configuration of the map, looked up as Hazelcast does, as the configurations have no name.
+     */
+    private static String mapConfigName(Config config, String mapName) {
+        Map<String, MapConfig> mapConfigs = config.getMapConfigs();
+        if (mapConfigs.containsKey(mapName)) {
+            return mapName;
+        }
+        String pattern = config.getConfigPatternMatcher().matches(mapConfigs.keySet(), mapName);
+        return pattern != null ? pattern : "default";
+    }
+
+    /**
+     * @return a copy of the configuration the map would get without the region, named after the region.
+     */
+    private static MapConfig newMapConfig(Config config, String regionName) {
+        MapConfig mapConfig = new MapConfig(config.findMapConfig(regionName));
+        mapConfig.setName(regionName);
+        return mapConfig;
+    }
+
+    static void apply(String regionName, ApplicationProperties.Region region, MapConfig mapConfig) {
+        boolean bounded = false;
+        if (region.getMaxEntries() != null && region.getMaxHeapPercentage() != null) {
+            throw new IllegalArgumentException("Both max-entries and max-heap-percentage are set for the cache region "
+                + regionName);
+        } else if (region.getMaxEntries() != null) {
+            mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxEntries(), MaxSizeConfig.MaxSizePolicy.PER_NODE));
+            bounded = true;
+        } else if (region.getMaxHeapPercentage() != null) {
+            mapConfig.setMaxSizeConfig(new MaxSizeConfig(region.getMaxHeapPercentage(),
+                MaxSizeConfig.MaxSizePolicy.USED_HEAP_PERCENTAGE));
+            bounded = true;
+        }
+        if (region.getEvictionPolicy() != null) {
+            mapConfig.setEvictionPolicy(region.getEvictionPolicy());
+        } else if (bounded && mapConfig.getEvictionPolicy() == EvictionPolicy.NONE) {
+            // Without an eviction policy the maximum size is ignored
+            mapConfig.setEvictionPolicy(EvictionPolicy.LRU);
+        }
+        if (region.getTimeToLiveSeconds() != null) {
+            mapConfig.setTimeToLiveSeconds(region.getTimeToLiveSeconds());
+        }
+        if (region.getMaxIdleSeconds() != null) {
+            mapConfig.setMaxIdleSeconds(region.getMaxIdleSeconds());
+        }
+        if (region.getBackupCount() != null) {
+            mapConfig.setBackupCount(region.getBackupCount());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+/**
+ * Registration of the custom Hazelcast serializers, which all the members of a cluster must share.
+ * <p>
+ * The type ids must stay the same across versions, as long as members of different versions can be in the same cluster.
+ */
+public final class HazelcastSerialization {
+
+    static final int CAR_TYPE_ID = 1000;
+
+    static final int CAR_CHANGE_EVENT_TYPE_ID = 1001;
+
+    static final int CACHE_ENTRY_TYPE_ID = 1100;
+
+    static final int CACHE_ITEM_TYPE_ID = 1101;
+
+    static final int CACHE_SOFT_LOCK_TYPE_ID = 1102;
+
+    private HazelcastSerialization() {
+    }
+
+    /**
+     * @param serializationConfig the configuration to add the serializers to.
+     */
+    public static void configure(SerializationConfig serializationConfig) {
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(Car.class).setImplementation(new CarSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(CarChangeEvent.class).setImplementation(new CarChangeEventSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(StandardCacheEntryImpl.class).setImplementation(new HibernateCacheSerializers.CacheEntrySerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(AbstractReadWriteAccess.Item.class).setImplementation(new HibernateCacheSerializers.ItemSerializer()));
+        serializationConfig.addSerializerConfig(new SerializerConfig()
+            .setTypeClass(AbstractReadWriteAccess.SoftLockImpl.class).setImplementation(new HibernateCacheSerializers.SoftLockSerializer()));
+    }
+}
@@ -0,0 +1,206 @@
+package com.cars.app.config.hazelcast;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.UUID;
+
+/**
+ * Serializers of the values which Hibernate stores in the {@code READ_WRITE} second-level cache regions: an
+ * {@link AbstractReadWriteAccess.Item} holding a {@link StandardCacheEntryImpl}, or an
+ * {@link AbstractReadWriteAccess.SoftLockImpl} while the entity is being updated.
+ * <p>
+ * These classes are only {@link Serializable}, and {@code hazelcast-hibernate53} only registers a serializer for its
+ * own cache entry class, so without these serializers each region entry and its backup go through Java serialization.
+ * Their constructors and some of their fields are not accessible, so they are read with reflection.
+ * <p>
+ * They depend on the internals of Hibernate 5.4, as of {@code hibernate-core} 5.4.15.Final, which are not part of
+ * its API: the reflective lookups fail when this class is loaded if they have changed, and must be checked again
+ * on each upgrade of Hibernate, as must {@code CarRepositoryCustomImpl.findAllByIdCacheFirst}, which reads the same
+ * entries from Hazelcast and falls back to Hibernate for the entries it does not recognize.
+ */
+public final class HibernateCacheSerializers {
+
+    private HibernateCacheSerializers() {
+    }
+
+    /**
+     * Writes the disassembled state of the entity, whose values are basic types serialized by Hazelcast.
+     */
+    public static class CacheEntrySerializer implements StreamSerializer<StandardCacheEntryImpl> {
+
+        private static final Constructor<StandardCacheEntryImpl> CONSTRUCTOR =
+            constructor(StandardCacheEntryImpl.class, Serializable[].class, String.class, Object.class);
+
+        @Override
+        public int getTypeId() {
+            return HazelcastSerialization.CACHE_ENTRY_TYPE_ID;
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, StandardCacheEntryImpl entry) throws IOException {
+            Serializable[] state = entry.getDisassembledState();
+            out.writeInt(state.length);
+            for (Serializable value : state) {
+                out.writeObject(value);
+            }
+            out.writeUTF(entry.getSubclass());
+            out.writeObject(entry.getVersion());
+        }
+
+        @Override
+        public StandardCacheEntryImpl read(ObjectDataInput in) throws IOException {
+            Serializable[] state = new Serializable[in.readInt()];
+            for (int i = 0; i < state.length; i++) {
+                state[i] = in.readObject();
+            }
+            String subclass = in.readUTF();
+            Object version = in.readObject();
+            return newInstance(CONSTRUCTOR, state, subclass, version);
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    public static class ItemSerializer implements StreamSerializer<AbstractReadWriteAccess.Item> {
+
+        private static final Constructor<AbstractReadWriteAccess.Item> CONSTRUCTOR =
+            constructor(AbstractReadWriteAccess.Item.class, Object.class, Object.class, long.class);
+
+        private static final Field VERSION = field(AbstractReadWriteAccess.Item.class, "version");
+
+        private static final Field TIMESTAMP = field(AbstractReadWriteAccess.Item.class, "timestamp");
+
+        @Override
+        public int getTypeId() {
+            return HazelcastSerialization.CACHE_ITEM_TYPE_ID;
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, AbstractReadWriteAccess.Item item) throws IOException {
+            out.writeObject(item.getValue());
+            out.writeObject(get(VERSION, item));
+            out.writeLong((Long) get(TIMESTAMP, item));
+        }
+
+        @Override
+        public AbstractReadWriteAccess.Item read(ObjectDataInput in) throws IOException {
+            Object value = in.readObject();
+            Object version = in.readObject();
+            long timestamp = in.readLong();
+            return newInstance(CONSTRUCTOR, value, version, timestamp);
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    public static class SoftLockSerializer implements StreamSerializer<AbstractReadWriteAccess.SoftLockImpl> {
+
+        private static final Constructor<AbstractReadWriteAccess.SoftLockImpl> CONSTRUCTOR =
+            constructor(AbstractReadWriteAccess.SoftLockImpl.class, long.class, UUID.class, long.class, Object.class);
+
+        private static final Field SOURCE_UUID = field(AbstractReadWriteAccess.SoftLockImpl.class, "sourceUuid");
+
+        private static final Field LOCK_ID = field(AbstractReadWriteAccess.SoftLockImpl.class, "lockId");
+
+        private static final Field VERSION = field(AbstractReadWriteAccess.SoftLockImpl.class, "version");
+
+        private static final Field TIMEOUT = field(AbstractReadWriteAccess.SoftLockImpl.class, "timeout");
+
+        private static final Field CONCURRENT = field(AbstractReadWriteAccess.SoftLockImpl.class, "concurrent");
+
+        private static final Field MULTIPLICITY = field(AbstractReadWriteAccess.SoftLockImpl.class, "multiplicity");
+
+        private static final Field UNLOCK_TIMESTAMP = field(AbstractReadWriteAccess.SoftLockImpl.class, "unlockTimestamp");
+
+        @Override
+        public int getTypeId() {
+            return HazelcastSerialization.CACHE_SOFT_LOCK_TYPE_ID;
+        }
+
+        @Override
+        public void write(ObjectDataOutput out, AbstractReadWriteAccess.SoftLockImpl lock) throws IOException {
+            UUID sourceUuid = (UUID) get(SOURCE_UUID, lock);
+            out.writeLong(sourceUuid.getMostSignificantBits());
+            out.writeLong(sourceUuid.getLeastSignificantBits());
+            out.writeLong((Long) get(LOCK_ID, lock));
+            out.writeObject(get(VERSION, lock));
+            out.writeLong((Long) get(TIMEOUT, lock));
+            out.writeBoolean((Boolean) get(CONCURRENT, lock));
+            out.writeInt((Integer) get(MULTIPLICITY, lock));
+            out.writeLong((Long) get(UNLOCK_TIMESTAMP, lock));
+        }
+
+        @Override
+        public AbstractReadWriteAccess.SoftLockImpl read(ObjectDataInput in) throws IOException {
+            UUID sourceUuid = new UUID(in.readLong(), in.readLong());
+            long lockId = in.readLong();
+            Object version = in.readObject();
+            long timeout = in.readLong();
+            AbstractReadWriteAccess.SoftLockImpl lock = newInstance(CONSTRUCTOR, timeout, sourceUuid, lockId, version);
+            set(CONCURRENT, lock, in.readBoolean());
+            set(MULTIPLICITY, lock, in.readInt());
+            set(UNLOCK_TIMESTAMP, lock, in.readLong());
+            return lock;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    private static <T> Constructor<T> constructor(Class<T> type, Class<?>... parameterTypes) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Unsupported Hibernate version, " + type.getName() + " has changed", e);
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Unsupported Hibernate version, " + type.getName() + " has changed", e);
+        }
+    }
+
+    private static <T> T newInstance(Constructor<T> constructor, Object... arguments) throws IOException {
+        try {
+            return constructor.newInstance(arguments);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Object get(Field field, Object target) throws IOException {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void set(Field field, Object target, Object value) throws IOException {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.cars.app.config.hazelcast;
+
+import com.hazelcast.hibernate.HazelcastCacheRegionFactory;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+
+/**
+ * Hazelcast region factory whose entity cache keys are the ids of the entities, serialized by Hazelcast, instead of
+ * Hibernate's default keys, which also hold the name and the Hibernate type of the entity and go through Java
+ * serialization on every read and write of the cache.
+ * <p>
+ * The ids are unique keys as long as each entity has its own region, which is the default. Hibernate does not apply
+ * the {@code hibernate.cache.keys_factory} setting to the regions of this factory.
+ */
+public class IdKeyedHazelcastCacheRegionFactory extends HazelcastCacheRegionFactory {
+
+    public IdKeyedHazelcastCacheRegionFactory() {
+        super(SimpleCacheKeysFactory.INSTANCE);
+    }
+}
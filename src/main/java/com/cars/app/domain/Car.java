@@ -2,6 +2,7 @@ package com.cars.app.domain;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 
@@ -9,16 +10,20 @@ import java.io.Serializable;
 
 /**
  * A Car.
+ * <p>
+ * Updates only set the changed columns, so that partial updates do not rewrite the whole row.
  */
 @Entity
 @Table(name = "car")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 public class Car implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
     private Long id;
 
     @Column(name = "make")
@@ -30,6 +35,13 @@ public class Car implements Serializable {
     @Column(name = "price")
     private Double price;
 
+    /**
+     * Incremented by Hibernate on each update, for optimistic locking and as the ETag of the car.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -77,6 +89,14 @@ public class Car implements Serializable {
     public void setPrice(Double price) {
         this.price = price;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -103,6 +123,7 @@ public class Car implements Serializable {
             ", make='" + getMake() + "'" +
             ", model='" + getModel() + "'" +
             ", price=" + getPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
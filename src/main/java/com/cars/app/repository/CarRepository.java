@@ -3,12 +3,36 @@ package com.cars.app.repository;
 import com.cars.app.domain.Car;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Spring Data  repository for the Car entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
+public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car>, CarRepositoryCustom {
+
+    /**
+     * @return rows of make, model and the number of cars with them.
+     */
+    @Query("select car.make, car.model, count(car) from Car car group by car.make, car.model")
+    List<Object[]> countGroupedByMakeAndModel();
+
+    /**
+     * Count the cars with a price per bucket of {@code floor(price / width)}. As this quotient is rounded, a price
+     * close to a bucket boundary may be counted in its neighbour: such prices are counted apart, so that the caller can
+     * move them to the bucket whose {@code [bucket * width, (bucket + 1) * width)} range contains them.
+     *
+     * @param width the width of the buckets.
+     * @return rows of bucket, number of cars in it, number of them below its range, and number of them above its range.
+     */
+    // The bucket is selected through min, as some databases do not match a grouping expression having parameters
+    @Query("select min(floor(car.price / :width)), count(car), " +
+        "sum(case when car.price < floor(car.price / :width) * :width then 1 else 0 end), " +
+        "sum(case when car.price >= (floor(car.price / :width) + 1) * :width then 1 else 0 end) " +
+        "from Car car where car.price is not null group by floor(car.price / :width)")
+    List<Object[]> countGroupedByPriceBucket(@Param("width") double width);
 }
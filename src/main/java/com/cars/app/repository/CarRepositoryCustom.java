@@ -0,0 +1,145 @@
+package com.cars.app.repository;
+
+import com.cars.app.domain.Car;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.Tuple;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Custom queries for the Car entity which can't be expressed with Spring Data derived queries.
+ */
+public interface CarRepositoryCustom {
+
+    /**
+     * Return at most {@code limit} cars matching the specification, in the given order.
+     * <p>
+     * Unlike {@code findAll(Specification, Pageable)} no count query is issued and no OFFSET is used,
+     * so callers are expected to express the position in the result with the specification itself
+     * (keyset pagination).
+     *
+     * @param specification the filters to apply.
+     * @param sort the order of the returned rows.
+     * @param limit the maximum number of rows to return.
+     * @return the matching entities.
+     */
+    List<Car> findAll(Specification<Car> specification, Sort sort, int limit);
+
+    /**
+     * Return only the given attributes of the cars matching the specification.
+     * <p>
+     * The query selects the columns as a tuple, so no entity is hydrated, attached to the persistence
+     * context or put in the second-level cache.
+     *
+     * @param specification the filters to apply.
+     * @param attributes the names of the attributes to select, used as the aliases of the tuple elements.
+     * @return the selected attributes of the matching cars.
+     */
+    List<Tuple> findAll(Specification<Car> specification, List<String> attributes);
+
+    /**
+     * Same as {@link #findAll(Specification, List)}, for at most {@code limit} cars in the given order,
+     * as {@link #findAll(Specification, Sort, int)}.
+     *
+     * @param specification the filters to apply.
+     * @param attributes the names of the attributes to select, used as the aliases of the tuple elements.
+     * @param sort the order of the returned rows.
+     * @param limit the maximum number of rows to return.
+     * @return the selected attributes of the matching cars.
+     */
+    List<Tuple> findAll(Specification<Car> specification, List<String> attributes, Sort sort, int limit);
+
+    /**
+     * Aggregate the cars matching the specification by make, model and price bucket, in a single grouped query.
+     * <p>
+     * Each tuple holds the {@code make}, {@code model} and {@code bucket} (the floor of price divided by the bucket width,
+     * {@code null} without a price) of a group, with its {@code count}, {@code minPrice}, {@code maxPrice},
+     * {@code sumPrice} and {@code priceCount} (the number of cars with a price).
+     *
+     * @param specification the filters to apply.
+     * @param priceBucketWidth the width of the price buckets.
+     * @return the groups.
+     */
+    List<Tuple> findFacets(Specification<Car> specification, double priceBucketWidth);
+
+    /**
+     * Scroll through all the cars matching the specification, ordered by id, handing them one at a time to the action.
+     * <p>
+     * Rows are read through a read-only {@link org.hibernate.StatelessSession} sharing the current connection,
+     * so they are neither kept in the persistence context nor put in the second-level cache, and only
+     * {@code fetchSize} rows are held by the JDBC driver at any time.
+     *
+     * @param specification the filters to apply.
+     * @param fetchSize the number of rows fetched per database round trip.
+     * @param action the action to perform on each car.
+     */
+    void scroll(Specification<Car> specification, int fetchSize, Consumer<Car> action);
+
+    /**
+     * Return the cars with the given ids, in the same order.
+     * <p>
+     * Each car is looked up in the persistence context then in the second-level cache, and only the
+     * remaining ones are loaded from the database, with batched {@code IN} queries.
+     *
+     * @param ids the ids of the cars to load.
+     * @return the cars, with {@code null} for the ids which do not exist.
+     */
+    List<Car> loadAll(List<Long> ids);
+
+    /**
+     * Return the cars with the given ids, reading the second-level cache region of the cars first.
+     * <p>
+     * Unlike {@link #loadAll(List)}, which looks up the second-level cache one id at a time, the cached cars are
+     * read with a single Hazelcast {@code getAll}, and the other ones are loaded with a single {@code IN} query,
+     * which puts them in the cache. Cache entries which are not of the shape written by Hibernate 5.4 are loaded
+     * with {@link #loadAll(List)} instead.
+     *
+     * @param ids the ids of the cars to find.
+     * @return the found cars by id, detached when read from the cache.
+     */
+    Map<Long, Car> findAllByIdCacheFirst(Collection<Long> ids);
+
+    /**
+     * Return the current state of at most {@code limit} cars matching the specification, ordered by id, locking their
+     * rows until the end of the current transaction.
+     * <p>
+     * As {@link #findAll(Specification, List)}, the columns are selected as a tuple, so the returned cars are
+     * detached copies which are not put in the persistence context.
+     *
+     * @param specification the filters to apply.
+     * @param limit the maximum number of cars to return, {@link Integer#MAX_VALUE} for all of them.
+     * @return the matching cars.
+     */
+    List<Car> findAllForUpdate(Specification<Car> specification, int limit);
+
+    /**
+     * Set the price of the given cars to {@code price * factor + addend}, and increment their version, with a
+     * single {@code UPDATE} statement.
+     * <p>
+     * Unlike a JPQL bulk update, which evicts the whole second-level cache region of the cars, only the cache entries
+     * of the given cars are invalidated: they are soft-locked as for an update of each car by Hibernate, until the
+     * transaction completes. The cars of the persistence context are detached, as their state becomes stale.
+     *
+     * @param cars the cars to update, with their current version, as returned by {@link #findAllForUpdate(Specification, int)}.
+     * @param factor the factor of the current price.
+     * @param addend the amount added to the current price once multiplied by the factor.
+     * @return the number of updated rows.
+     */
+    int adjustPrices(Collection<Car> cars, double factor, double addend);
+
+    /**
+     * Delete the given cars with a single {@code DELETE} statement.
+     * <p>
+     * As for {@link #adjustPrices(Collection, double, double)}, only the entries of the given cars are invalidated in
+     * the second-level cache, and the cars of the persistence context are detached.
+     *
+     * @param cars the cars to delete, with their current version, as returned by {@link #findAllForUpdate(Specification, int)}.
+     * @return the number of deleted rows.
+     */
+    int deleteAllLocked(Collection<Car> cars);
+}
@@ -0,0 +1,366 @@
+package com.cars.app.repository;
+
+import com.cars.app.domain.Car;
+import com.cars.app.domain.Car_;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.hibernate.serialization.Expirable;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.bytecode.enhance.spi.LazyPropertyInitializer;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.property.access.internal.PropertyAccessStrategyBackRefImpl;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.Type;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Implementation of {@link CarRepositoryCustom}, picked up by Spring Data as a repository fragment.
+ */
+public class CarRepositoryCustomImpl implements CarRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public CarRepositoryCustomImpl(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @Override
+    public List<Car> findAll(Specification<Car> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Car> query = builder.createQuery(Car.class);
+        Root<Car> root = query.from(Car.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(toOrders(sort, root, builder));
+        return em.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findAll(Specification<Car> specification, List<String> attributes) {
+        return createTupleQuery(specification, attributes, Sort.unsorted()).getResultList();
+    }
+
+    @Override
+    public List<Tuple> findAll(Specification<Car> specification, List<String> attributes, Sort sort, int limit) {
+        return createTupleQuery(specification, attributes, sort).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<Tuple> createTupleQuery(Specification<Car> specification, List<String> attributes, Sort sort) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Car> root = query.from(Car.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(attributes.stream().map(attribute -> root.get(attribute).alias(attribute)).collect(Collectors.toList()));
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, builder));
+        }
+        return em.createQuery(query);
+    }
+
+    @Override
+    public List<Tuple> findFacets(Specification<Car> specification, double priceBucketWidth) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Car> root = query.from(Car.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Expression<Double> price = root.get(Car_.price);
+        // Numeric literals are inlined, so the select and group by expressions are rendered identically
+        Expression<Double> bucket = builder.function("floor", Double.class, builder.quot(price, builder.literal(priceBucketWidth)));
+        query.multiselect(
+            root.get(Car_.make).alias("make"),
+            root.get(Car_.model).alias("model"),
+            bucket.alias("bucket"),
+            builder.count(root).alias("count"),
+            builder.min(price).alias("minPrice"),
+            builder.max(price).alias("maxPrice"),
+            builder.sum(price).alias("sumPrice"),
+            builder.count(price).alias("priceCount"))
+            .groupBy(root.get(Car_.make), root.get(Car_.model), bucket);
+        return em.createQuery(query).getResultList();
+    }
+
+    @Override
+    public void scroll(Specification<Car> specification, int fetchSize, Consumer<Car> action) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Car> query = builder.createQuery(Car.class);
+        Root<Car> root = query.from(Car.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(builder.asc(root.get(Car_.id)));
+
+        Session session = em.unwrap(Session.class);
+        session.doWork(connection -> {
+            try (StatelessSession statelessSession = session.getSessionFactory().withStatelessOptions()
+                .connection(connection)
+                .openStatelessSession();
+                 ScrollableResults results = statelessSession.createQuery(query)
+                     .setReadOnly(true)
+                     .setFetchSize(fetchSize)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    action.accept((Car) results.get(0));
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Car> loadAll(List<Long> ids) {
+        return em.unwrap(Session.class)
+            .byMultipleIds(Car.class)
+            .with(CacheMode.NORMAL)
+            .enableSessionCheck(true)
+            .multiLoad(ids);
+    }
+
+    @Override
+    public Map<Long, Car> findAllByIdCacheFirst(Collection<Long> ids) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Car.class);
+        Map<Long, Car> found = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : ids) {
+            // Cars of the persistence context may have changes which are not in the cache yet
+            Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                found.put(id, (Car) managed);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty() && persister.canReadFromCache() && session.getCacheMode().isGetEnabled()) {
+            Set<Long> unrecognized = new LinkedHashSet<>();
+            readCache(session, persister, misses, found, unrecognized);
+            misses.removeAll(found.keySet());
+            misses.removeAll(unrecognized);
+            if (!unrecognized.isEmpty()) {
+                // Let Hibernate read the entries it wrote in a way this method does not know
+                loadAll(new ArrayList<>(unrecognized)).stream()
+                    .filter(Objects::nonNull)
+                    .forEach(car -> found.put(car.getId(), car));
+            }
+        }
+        if (!misses.isEmpty()) {
+            em.createQuery("select car from Car car where car.id in :ids", Car.class)
+                .setParameter("ids", misses)
+                .getResultList()
+                .forEach(car -> found.put(car.getId(), car));
+        }
+        return found;
+    }
+
+    /**
+     * Read the cars of the second-level cache region with a single {@code getAll} on its Hazelcast map, with the
+     * same checks as a read of the region by Hibernate: entries written after the start of the transaction and
+     * entries locked by a concurrent update are misses.
+     * <p>
+     * The entries are the internal classes of the {@code READ_WRITE} access of Hibernate 5.4, also serialized by
+     * {@link com.cars.app.config.hazelcast.HibernateCacheSerializers}: the ids of the entries of any other shape are
+     * added to {@code unrecognized} instead of being trusted.
+     */
+    private void readCache(SessionImplementor session, EntityPersister persister, Collection<Long> ids, Map<Long, Car> found,
+                           Set<Long> unrecognized) {
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        Map<Object, Long> idsByKey = new HashMap<>();
+        for (Long id : ids) {
+            idsByKey.put(access.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier()), id);
+        }
+        IMap<Object, Object> region = hazelcastInstance.getMap(access.getRegion().getName());
+        long txTimestamp = session.getTransactionStartTimestamp();
+        region.getAll(idsByKey.keySet()).forEach((key, entry) -> {
+            Long id = idsByKey.get(key);
+            if (!(entry instanceof Expirable)) {
+                unrecognized.add(id);
+                return;
+            }
+            Object item = ((Expirable) entry).getValue(txTimestamp);
+            if (item instanceof AbstractReadWriteAccess.Item) {
+                if (((AbstractReadWriteAccess.Item) item).isReadable(txTimestamp)) {
+                    Car car = assemble(session, persister, id, ((AbstractReadWriteAccess.Item) item).getValue());
+                    if (car != null) {
+                        found.put(id, car);
+                    } else {
+                        unrecognized.add(id);
+                    }
+                }
+            } else if (item != null && !(item instanceof SoftLock)) {
+                unrecognized.add(id);
+            }
+        });
+    }
+
+    /**
+     * @return the car of a cache entry, or {@code null} if the entry is not the disassembled state of a car.
+     */
+    private static Car assemble(SessionImplementor session, EntityPersister persister, Long id, Object cached) {
+        Object destructured = persister.getCacheEntryStructure().destructure(cached, session.getFactory());
+        if (!(destructured instanceof CacheEntry)) {
+            return null;
+        }
+        CacheEntry entry = (CacheEntry) destructured;
+        Serializable[] disassembled = entry.getDisassembledState();
+        Type[] types = persister.getPropertyTypes();
+        if (!persister.getEntityName().equals(entry.getSubclass()) || disassembled == null || disassembled.length != types.length) {
+            return null;
+        }
+        Car car = new Car();
+        Object[] values = new Object[disassembled.length];
+        for (int i = 0; i < disassembled.length; i++) {
+            // Markers of unfetched lazy properties and unknown back references are kept as they are
+            if (disassembled[i] == LazyPropertyInitializer.UNFETCHED_PROPERTY || disassembled[i] == PropertyAccessStrategyBackRefImpl.UNKNOWN) {
+                values[i] = disassembled[i];
+            } else {
+                values[i] = types[i].assemble(disassembled[i], session, car);
+            }
+        }
+        persister.setPropertyValues(car, values);
+        persister.setIdentifier(car, id, session);
+        return car;
+    }
+
+    @Override
+    public List<Car> findAllForUpdate(Specification<Car> specification, int limit) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Car> root = query.from(Car.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(root.get(Car_.id), root.get(Car_.make), root.get(Car_.model), root.get(Car_.price), root.get(Car_.version))
+            // Rows are locked in the same order by concurrent updates, so they cannot deadlock each other
+            .orderBy(builder.asc(root.get(Car_.id)));
+        TypedQuery<Tuple> typedQuery = em.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        if (limit < Integer.MAX_VALUE) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList()
+            .stream()
+            .map(tuple -> {
+                Car car = new Car()
+                    .make(tuple.get(1, String.class))
+                    .model(tuple.get(2, String.class))
+                    .price(tuple.get(3, Double.class));
+                car.setId(tuple.get(0, Long.class));
+                car.setVersion(tuple.get(4, Long.class));
+                return car;
+            })
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public int adjustPrices(Collection<Car> cars, double factor, double addend) {
+        if (cars.isEmpty()) {
+            return 0;
+        }
+        return em.createNativeQuery("update car set price = price * :factor + :addend, version = version + 1 where id in (:ids)")
+            .unwrap(NativeQuery.class)
+            // An empty query space instead of the one of the cars, which would evict their whole region after the update
+            .addSynchronizedQuerySpace("")
+            .setParameter("factor", factor)
+            .setParameter("addend", addend)
+            .setParameterList("ids", prepareBulkWrite(cars))
+            .executeUpdate();
+    }
+
+    @Override
+    public int deleteAllLocked(Collection<Car> cars) {
+        if (cars.isEmpty()) {
+            return 0;
+        }
+        return em.createNativeQuery("delete from car where id in (:ids)")
+            .unwrap(NativeQuery.class)
+            // An empty query space instead of the one of the cars, which would evict their whole region after the delete
+            .addSynchronizedQuerySpace("")
+            .setParameterList("ids", prepareBulkWrite(cars))
+            .executeUpdate();
+    }
+
+    /**
+     * Prepare a write of the cars by a native statement: flush the pending changes, which the statement would not,
+     * detach the cars of the persistence context and soft-lock their cache entries.
+     *
+     * @return the ids of the cars.
+     */
+    private List<Long> prepareBulkWrite(Collection<Car> cars) {
+        em.flush();
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Car.class);
+        List<Long> ids = new ArrayList<>(cars.size());
+        for (Car car : cars) {
+            ids.add(car.getId());
+            Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(car.getId(), persister));
+            if (managed != null) {
+                em.detach(managed);
+            }
+        }
+        if (persister.canWriteToCache()) {
+            softLock(session, persister, cars);
+        }
+        return ids;
+    }
+
+    /**
+     * Lock the cache entries of the cars until the transaction completes, as Hibernate does before updating or
+     * deleting a cached entity: in between, the cars are read from the database and not put in the cache, and once
+     * unlocked only a newer version can be put in the cache.
+     */
+    private static void softLock(SessionImplementor session, EntityPersister persister, Collection<Car> cars) {
+        EntityDataAccess access = persister.getCacheAccessStrategy();
+        Map<Object, SoftLock> locks = new HashMap<>();
+        for (Car car : cars) {
+            Object key = access.generateCacheKey(car.getId(), persister, session.getFactory(), session.getTenantIdentifier());
+            locks.put(key, access.lockItem(session, key, car.getVersion()));
+        }
+        session.getActionQueue().registerProcess((success, completedSession) ->
+            locks.forEach((key, lock) -> access.unlockItem(completedSession, key, lock)));
+    }
+}
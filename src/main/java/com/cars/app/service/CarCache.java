@@ -0,0 +1,96 @@
+package com.cars.app.service;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keeps the {@link CarService#CARS_BY_ID_CACHE} cache of {@link CarService#findOne(Long)} up to date with the committed
+ * changes of cars.
+ * <p>
+ * The cache is filled by the {@code @Cacheable} annotation of {@code findOne}, which holds the lock of the key while it
+ * loads a car. A change waits for that lock, so that a car read before the change was committed is not kept:
+ * <ul>
+ * <li>a car updated alone replaces its cached state, if it is an older version;</li>
+ * <li>a car deleted, or changed by a bulk operation, is evicted;</li>
+ * <li>a car created is evicted, as a read which missed it before its creation was committed cached it as not found.</li>
+ * </ul>
+ * An absent car is never added here, so a change applied late cannot bring back a car evicted since. A created car
+ * is cached by its first read.
+ */
+@Service
+public class CarCache {
+
+    private static final Method FIND_ONE = ReflectionUtils.findMethod(CarService.class, "findOne", Long.class);
+
+    private final Logger log = LoggerFactory.getLogger(CarCache.class);
+
+    private final IMap<Object, Object> cars;
+
+    private final KeyGenerator keyGenerator;
+
+    public CarCache(HazelcastInstance hazelcastInstance, KeyGenerator keyGenerator) {
+        // The map of the Spring cache, whose values are the cars as returned by findOne
+        this.cars = hazelcastInstance.getMap(CarService.CARS_BY_ID_CACHE);
+        this.keyGenerator = keyGenerator;
+    }
+
+    /**
+     * @param id the id of a car.
+     * @return the key of the car in the cache, as generated for {@link CarService#findOne(Long)}.
+     */
+    public Object key(Long id) {
+        return keyGenerator.generate(this, FIND_ONE, id);
+    }
+
+    /**
+     * Update or evict the cached cars which a committed change has modified.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChange(CarChangeEvent event) {
+        boolean single = event.getChanges().size() == 1;
+        for (CarChangeEvent.Change change : event.getChanges()) {
+            if (change.getBefore() == null) {
+                cars.delete(key(change.getAfter().getId()));
+                continue;
+            }
+            Object key = key(change.getBefore().getId());
+            if (single && change.getAfter() != null) {
+                update(key, change.getAfter());
+            } else {
+                cars.delete(key);
+            }
+        }
+    }
+
+    private void update(Object key, Car car) {
+        cars.lock(key);
+        try {
+            Object cached = cars.get(key);
+            if (cached instanceof Car) {
+                Long cachedVersion = ((Car) cached).getVersion();
+                if (cachedVersion == null || car.getVersion() == null || cachedVersion < car.getVersion()) {
+                    log.debug("Updating cached Car : {}", car.getId());
+                    cars.set(key, car);
+                }
+            } else if (cached != null) {
+                // Cached as not found, before it was created
+                cars.delete(key);
+            }
+        } finally {
+            cars.unlock(key);
+        }
+    }
+}
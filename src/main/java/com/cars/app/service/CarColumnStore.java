@@ -0,0 +1,203 @@
+package com.cars.app.service;
+
+import com.cars.app.config.ApplicationProperties;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory read model of all the cars, stored as {@link CarColumns}, which answers {@link CarQueryService}
+ * queries without the database once loaded.
+ * <p>
+ * The store is loaded at startup then reloaded periodically, and kept up to date in between with the committed
+ * {@link CarChangeEvent}s of this member, and of the other members of the cluster through a Hazelcast topic.
+ * Queries run inside a read-write transaction go to the database, as they may see uncommitted changes.
+ */
+@Service
+public class CarColumnStore {
+
+    public static final String TOPIC_NAME = "com.cars.app.service.CarColumnStore";
+
+    private final Logger log = LoggerFactory.getLogger(CarColumnStore.class);
+
+    private final CarRepository carRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ITopic<CarChangeEvent> topic;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * {@code null} until the first load is done.
+     */
+    private volatile CarColumns columns;
+
+    /**
+     * Changes received while a reload is running, to apply on the reloaded columns. Guarded by {@link #lock}.
+     */
+    private List<CarChangeEvent> pendingChanges;
+
+    public CarColumnStore(CarRepository carRepository, ApplicationProperties applicationProperties, HazelcastInstance hazelcastInstance) {
+        this.carRepository = carRepository;
+        this.applicationProperties = applicationProperties;
+        this.topic = hazelcastInstance.getTopic(TOPIC_NAME);
+        if (applicationProperties.getColumnStore().isEnabled()) {
+            topic.addMessageListener(message -> {
+                if (!message.getPublishingMember().localMember()) {
+                    apply(message.getMessageObject());
+                }
+            });
+        }
+    }
+
+    /**
+     * @return true if queries can be answered by the store in the current transaction.
+     */
+    public boolean isAvailable() {
+        return columns != null &&
+            (!TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Same as {@link CarQueryService#findByCriteria(CarCriteria)}, ordered by id.
+     *
+     * @param criteria the criteria which the cars should match.
+     * @return the matching cars, detached.
+     */
+    public List<Car> findByCriteria(CarCriteria criteria) {
+        return read(loaded -> loaded.find(criteria));
+    }
+
+    /**
+     * Same as {@link CarQueryService#findByCriteria(CarCriteria, CarCursor, int)}.
+     *
+     * @param criteria the criteria which the cars should match.
+     * @param cursor the position of the last car of the previous page, {@code null} for the first page.
+     * @param limit the maximum number of cars to return.
+     * @return the matching cars, detached.
+     */
+    public List<Car> findByCriteria(CarCriteria criteria, CarCursor cursor, int limit) {
+        return read(loaded -> loaded.findAfter(criteria, cursor, limit));
+    }
+
+    /**
+     * Same as {@link CarQueryService#countByCriteria(CarCriteria)}.
+     *
+     * @param criteria the criteria which the cars should match.
+     * @return the number of matching cars.
+     */
+    public long countByCriteria(CarCriteria criteria) {
+        return read(loaded -> loaded.count(criteria));
+    }
+
+    private <T> T read(Function<CarColumns, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a committed change of cars to the store, and send it to the other members.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChange(CarChangeEvent event) {
+        if (!applicationProperties.getColumnStore().isEnabled()) {
+            return;
+        }
+        apply(event);
+        topic.publish(event);
+    }
+
+    private void apply(CarChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            if (columns != null) {
+                apply(columns, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(CarColumns columns, CarChangeEvent event) {
+        for (CarChangeEvent.Change change : event.getChanges()) {
+            if (change.getAfter() != null) {
+                columns.upsert(change.getAfter());
+            } else {
+                columns.delete(change.getId());
+            }
+        }
+    }
+
+    /**
+     * Load all the cars from the database, to replace the current columns.
+     * <p>
+     * Changes applied during the load are replayed on the loaded columns: as they hold the whole state of the
+     * changed cars, applying a change already seen by the load is harmless. Reloads do not overlap, as the
+     * scheduled one may run while another one is requested.
+     */
+    @Scheduled(fixedDelayString = "${application.column-store.reload-delay:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        if (!applicationProperties.getColumnStore().isEnabled()) {
+            return;
+        }
+        log.debug("Loading the car column store");
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        CarColumns loaded = new CarColumns(applicationProperties.getDatabase().isIgnoreCase());
+        try {
+            carRepository.scroll(Specification.where(null), applicationProperties.getExport().getFetchSize(), loaded::append);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        loaded.buildIndexes();
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(event -> apply(loaded, event));
+            pendingChanges = null;
+            columns = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Loaded {} cars in the column store", loaded.size());
+    }
+}
@@ -0,0 +1,500 @@
+package com.cars.app.service;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Cars stored as primitive columns, with the same query semantics as {@link CarQueryService}.
+ * <p>
+ * Each car is a row: its id, version and price are stored in {@code long[]} and {@code double[]} columns ({@code NaN}
+ * for a {@code null} price), its make and model as codes of a dictionary in {@code int[]} columns ({@code -1} for
+ * {@code null}). Two indexes hold the rows sorted by id and by price then id, {@code null} prices first,
+ * and are used to narrow down the rows to evaluate.
+ * <p>
+ * Not thread-safe: {@link CarColumnStore} guards it with a read-write lock.
+ */
+class CarColumns {
+
+    private static final int NO_VALUE = -1;
+
+    private static final long NO_VERSION = Long.MIN_VALUE;
+
+    private final boolean ignoreCase;
+
+    private final Dictionary makes = new Dictionary();
+
+    private final Dictionary models = new Dictionary();
+
+    private int size;
+
+    private long[] ids;
+
+    private long[] versions;
+
+    private double[] prices;
+
+    private int[] makeCodes;
+
+    private int[] modelCodes;
+
+    /**
+     * Rows sorted by id.
+     */
+    private int[] byId;
+
+    /**
+     * Rows sorted by price then id, {@code null} prices first.
+     */
+    private int[] byPrice;
+
+    CarColumns(boolean ignoreCase) {
+        this(ignoreCase, 16);
+    }
+
+    private CarColumns(boolean ignoreCase, int capacity) {
+        this.ignoreCase = ignoreCase;
+        this.ids = new long[capacity];
+        this.versions = new long[capacity];
+        this.prices = new double[capacity];
+        this.makeCodes = new int[capacity];
+        this.modelCodes = new int[capacity];
+        this.byId = new int[capacity];
+        this.byPrice = new int[capacity];
+    }
+
+    /**
+     * Build the columns of the given cars, sorting the indexes once instead of inserting each row in them.
+     *
+     * @param cars the cars, with distinct ids.
+     * @param ignoreCase whether string equality ignores case.
+     * @return the columns.
+     */
+    static CarColumns of(List<Car> cars, boolean ignoreCase) {
+        CarColumns columns = new CarColumns(ignoreCase, Math.max(cars.size(), 16));
+        cars.forEach(columns::append);
+        columns.buildIndexes();
+        return columns;
+    }
+
+    /**
+     * Add a row without updating the indexes: {@link #buildIndexes()} must be called once all the rows are appended.
+     *
+     * @param car the car to add, whose id must not be stored yet.
+     */
+    void append(Car car) {
+        ensureCapacity(size + 1);
+        set(size++, car);
+    }
+
+    /**
+     * Sort the indexes after rows have been appended.
+     */
+    void buildIndexes() {
+        byId = sortedRows((a, b) -> Long.compare(ids[a], ids[b]));
+        byPrice = sortedRows(this::comparePriceOrder);
+    }
+
+    private int[] sortedRows(Comparator<Integer> comparator) {
+        int[] sorted = IntStream.range(0, size).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+        return Arrays.copyOf(sorted, ids.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Insert the car, or update it if a car with the same id is already stored.
+     *
+     * @param car the car to store.
+     */
+    void upsert(Car car) {
+        int idPosition = idPosition(car.getId(), size);
+        if (idPosition >= 0) {
+            int row = byId[idPosition];
+            remove(byPrice, pricePosition(prices[row], ids[row], size));
+            set(row, car);
+            insert(byPrice, -pricePosition(prices[row], ids[row], size - 1) - 1, row);
+            return;
+        }
+        ensureCapacity(size + 1);
+        int row = size;
+        set(row, car);
+        int pricePosition = -pricePosition(prices[row], ids[row], size) - 1;
+        size++;
+        insert(byId, -idPosition - 1, row);
+        insert(byPrice, pricePosition, row);
+    }
+
+    /**
+     * Remove the car with the given id, if it is stored.
+     *
+     * @param id the id of the car to remove.
+     */
+    void delete(long id) {
+        int idPosition = idPosition(id, size);
+        if (idPosition < 0) {
+            return;
+        }
+        int row = byId[idPosition];
+        remove(byId, idPosition);
+        remove(byPrice, pricePosition(prices[row], ids[row], size));
+        int last = size - 1;
+        if (row != last) {
+            // Move the last row into the hole, and point the indexes to its new place
+            byId[idPosition(ids[last], last)] = row;
+            byPrice[pricePosition(prices[last], ids[last], last)] = row;
+            ids[row] = ids[last];
+            versions[row] = versions[last];
+            prices[row] = prices[last];
+            makeCodes[row] = makeCodes[last];
+            modelCodes[row] = modelCodes[last];
+        }
+        size--;
+    }
+
+    /**
+     * @param criteria the criteria which the cars should match.
+     * @return the matching cars, ordered by id.
+     */
+    List<Car> find(CarCriteria criteria) {
+        Query query = new Query(criteria);
+        int[] rows = query.rows();
+        if (rows != byId) {
+            // Candidates come in price or request order: sort the matching ones by id
+            long[] matching = new long[rows.length];
+            int count = 0;
+            for (int row : rows) {
+                if (query.matches(row)) {
+                    matching[count++] = ids[row];
+                }
+            }
+            Arrays.sort(matching, 0, count);
+            List<Car> cars = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                cars.add(toCar(byId[idPosition(matching[i], size)]));
+            }
+            return cars;
+        }
+        List<Car> cars = new ArrayList<>();
+        for (int position = 0; position < size; position++) {
+            if (query.matches(byId[position])) {
+                cars.add(toCar(byId[position]));
+            }
+        }
+        return cars;
+    }
+
+    /**
+     * @param criteria the criteria which the cars should match.
+     * @return the number of matching cars.
+     */
+    long count(CarCriteria criteria) {
+        Query query = new Query(criteria);
+        int[] rows = query.rows();
+        int length = rows == byId ? size : rows.length;
+        long count = 0;
+        for (int i = 0; i < length; i++) {
+            if (query.matches(rows[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Same as {@link CarQueryService#findByCriteria(CarCriteria, CarCursor, int)}.
+     *
+     * @param criteria the criteria which the cars should match.
+     * @param cursor the price and id of the last car of the previous page, {@code null} for the first page.
+     * @param limit the maximum number of cars to return.
+     * @return the matching cars, ordered by price then id.
+     */
+    List<Car> findAfter(CarCriteria criteria, CarCursor cursor, int limit) {
+        Query query = new Query(criteria);
+        int from = query.priceFrom;
+        if (cursor != null) {
+            double price = cursor.getPrice() == null ? Double.NaN : normalize(cursor.getPrice());
+            int position = pricePosition(price, cursor.getId(), size);
+            from = Math.max(from, position >= 0 ? position + 1 : -position - 1);
+        }
+        List<Car> cars = new ArrayList<>(Math.min(limit, 64));
+        for (int position = from; position < query.priceTo && cars.size() < limit; position++) {
+            if (query.matches(byPrice[position])) {
+                cars.add(toCar(byPrice[position]));
+            }
+        }
+        return cars;
+    }
+
+    private void set(int row, Car car) {
+        ids[row] = car.getId();
+        versions[row] = car.getVersion() == null ? NO_VERSION : car.getVersion();
+        prices[row] = car.getPrice() == null ? Double.NaN : normalize(car.getPrice());
+        makeCodes[row] = makes.code(car.getMake());
+        modelCodes[row] = models.code(car.getModel());
+    }
+
+    private Car toCar(int row) {
+        Car car = new Car()
+            .make(makes.value(makeCodes[row]))
+            .model(models.value(modelCodes[row]))
+            .price(Double.isNaN(prices[row]) ? null : prices[row]);
+        car.setId(ids[row]);
+        car.setVersion(versions[row] == NO_VERSION ? null : versions[row]);
+        return car;
+    }
+
+    /**
+     * SQL compares -0.0 and 0.0 as equal, so both are stored as 0.0.
+     */
+    private static double normalize(double price) {
+        return price == 0 ? 0d : price;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int length = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, length);
+            versions = Arrays.copyOf(versions, length);
+            prices = Arrays.copyOf(prices, length);
+            makeCodes = Arrays.copyOf(makeCodes, length);
+            modelCodes = Arrays.copyOf(modelCodes, length);
+            byId = Arrays.copyOf(byId, length);
+            byPrice = Arrays.copyOf(byPrice, length);
+        }
+    }
+
+    private void insert(int[] index, int position, int row) {
+        System.arraycopy(index, position, index, position + 1, size - 1 - position);
+        index[position] = row;
+    }
+
+    private void remove(int[] index, int position) {
+        System.arraycopy(index, position + 1, index, position, size - 1 - position);
+    }
+
+    /**
+     * @param length the number of positions of {@link #byId} to search.
+     * @return the position of the id in {@link #byId}, or {@code -(insertion point) - 1} if it is not there.
+     */
+    private int idPosition(long id, int length) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = ids[byId[middle]];
+            if (value < id) {
+                low = middle + 1;
+            } else if (value > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @param length the number of positions of {@link #byPrice} to search.
+     * @return the position of the (price, id) pair in {@link #byPrice}, or {@code -(insertion point) - 1} if it is not there.
+     */
+    private int pricePosition(double price, long id, int length) {
+        int low = 0;
+        int high = length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int row = byPrice[middle];
+            int comparison = comparePriceOrder(prices[row], ids[row], price, id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int comparePriceOrder(Integer a, Integer b) {
+        return comparePriceOrder(prices[a], ids[a], prices[b], ids[b]);
+    }
+
+    private static int comparePriceOrder(double priceA, long idA, double priceB, long idB) {
+        boolean nullA = Double.isNaN(priceA);
+        boolean nullB = Double.isNaN(priceB);
+        if (nullA != nullB) {
+            return nullA ? -1 : 1;
+        }
+        if (!nullA && priceA != priceB) {
+            return priceA < priceB ? -1 : 1;
+        }
+        return Long.compare(idA, idB);
+    }
+
+    /**
+     * @return the first position of {@link #byPrice} whose row matches the predicate, which must be monotonic
+     * along the index (false then true).
+     */
+    private int firstPricePosition(IntPredicate predicate) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (predicate.test(byPrice[middle])) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A criteria compiled against the columns: string filters are evaluated once per dictionary code,
+     * and the id or price filters select the candidate rows through the indexes.
+     */
+    private final class Query {
+
+        private final LongFilter idFilter;
+
+        private final DoubleFilter priceFilter;
+
+        private final boolean[] matchingMakes;
+
+        private final boolean[] matchingModels;
+
+        /**
+         * Range of positions of {@link #byPrice} which may match the price filter.
+         */
+        private int priceFrom;
+
+        private int priceTo;
+
+        Query(CarCriteria criteria) {
+            this.idFilter = criteria == null ? null : criteria.getId();
+            this.priceFilter = criteria == null ? null : criteria.getPrice();
+            this.matchingMakes = makes.matching(criteria == null ? null : criteria.getMake(), ignoreCase);
+            this.matchingModels = models.matching(criteria == null ? null : criteria.getModel(), ignoreCase);
+            this.priceFrom = 0;
+            this.priceTo = size;
+            narrowPriceRange();
+        }
+
+        private void narrowPriceRange() {
+            DoubleFilter filter = priceFilter;
+            if (filter == null) {
+                return;
+            }
+            if (filter.getEquals() != null) {
+                double value = filter.getEquals();
+                priceFrom = firstPricePosition(row -> !Double.isNaN(prices[row]) && prices[row] >= value);
+                priceTo = firstPricePosition(row -> !Double.isNaN(prices[row]) && prices[row] > value);
+                return;
+            }
+            if (filter.getIn() != null) {
+                return;
+            }
+            boolean hasCondition = filter.getNotEquals() != null || filter.getNotIn() != null || filter.getGreaterThan() != null ||
+                filter.getGreaterThanOrEqual() != null || filter.getLessThan() != null || filter.getLessThanOrEqual() != null;
+            if (hasCondition || Boolean.TRUE.equals(filter.getSpecified())) {
+                priceFrom = firstPricePosition(row -> !Double.isNaN(prices[row]));
+            }
+            if (filter.getGreaterThan() != null) {
+                double value = filter.getGreaterThan();
+                priceFrom = Math.max(priceFrom, firstPricePosition(row -> !Double.isNaN(prices[row]) && prices[row] > value));
+            }
+            if (filter.getGreaterThanOrEqual() != null) {
+                double value = filter.getGreaterThanOrEqual();
+                priceFrom = Math.max(priceFrom, firstPricePosition(row -> !Double.isNaN(prices[row]) && prices[row] >= value));
+            }
+            if (filter.getLessThan() != null) {
+                double value = filter.getLessThan();
+                priceTo = Math.min(priceTo, firstPricePosition(row -> !Double.isNaN(prices[row]) && prices[row] >= value));
+            }
+            if (filter.getLessThanOrEqual() != null) {
+                double value = filter.getLessThanOrEqual();
+                priceTo = Math.min(priceTo, firstPricePosition(row -> !Double.isNaN(prices[row]) && prices[row] > value));
+            }
+        }
+
+        /**
+         * @return the candidate rows: looked up by id, or a range of the price index, or {@link #byId} for all rows.
+         */
+        int[] rows() {
+            if (idFilter != null && (idFilter.getEquals() != null || idFilter.getIn() != null)) {
+                List<Long> requested = idFilter.getEquals() != null ? Arrays.asList(idFilter.getEquals()) : idFilter.getIn();
+                return requested.stream()
+                    .filter(id -> id != null)
+                    .distinct()
+                    .mapToInt(id -> idPosition(id, size))
+                    .filter(position -> position >= 0)
+                    .map(position -> byId[position])
+                    .toArray();
+            }
+            if (priceFrom > 0 || priceTo < size) {
+                return Arrays.copyOfRange(byPrice, priceFrom, Math.max(priceFrom, priceTo));
+            }
+            return byId;
+        }
+
+        boolean matches(int row) {
+            return matchingMakes[makeCodes[row] + 1] &&
+                matchingModels[modelCodes[row] + 1] &&
+                (priceFilter == null || CarCriteriaMatcher.matches(priceFilter, Double.isNaN(prices[row]) ? null : prices[row])) &&
+                (idFilter == null || CarCriteriaMatcher.matches(idFilter, ids[row]));
+        }
+    }
+
+    /**
+     * Dictionary encoding of the distinct values of a string column. Codes are never reused, as the number of
+     * distinct makes and models stays small.
+     */
+    private static final class Dictionary {
+
+        private final List<String> values = new ArrayList<>();
+
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int code(String value) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+            return codes.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        String value(int code) {
+            return code == NO_VALUE ? null : values.get(code);
+        }
+
+        /**
+         * @return whether each code matches the filter, shifted by one so that {@code null} is at index 0.
+         */
+        boolean[] matching(StringFilter filter, boolean ignoreCase) {
+            boolean[] matching = new boolean[values.size() + 1];
+            matching[0] = CarCriteriaMatcher.matches(filter, null, ignoreCase);
+            for (int code = 0; code < values.size(); code++) {
+                matching[code + 1] = CarCriteriaMatcher.matches(filter, values.get(code), ignoreCase);
+            }
+            return matching;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.cars.app.service;
+
+import com.cars.app.config.ApplicationProperties;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.AbstractEntryProcessor;
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Number of cars per make, model, make and model, and price bucket, kept in a Hazelcast map so that
+ * {@link CarQueryService#countByCriteria(CarCriteria)} can answer equality counts without a {@code COUNT(*)} query.
+ * <p>
+ * Counters are incremented and decremented once changes are committed, and recomputed from the database
+ * by {@link #reconcile()} at startup then periodically, to fix any drift (lost events, changes made outside of
+ * {@link CarService}). Until the first reconciliation is done, no count is answered.
+ * <p>
+ * The counters are not updated in the transaction of the change: the map does not take part in the database
+ * transaction, so a change rolled back after its counters were updated would be counted until the next reconciliation.
+ */
+@Service
+public class CarCountStore {
+
+    public static final String MAP_NAME = "com.cars.app.service.CarCountStore";
+
+    /**
+     * Maximum number of price buckets summed to answer a count.
+     */
+    static final int MAX_BUCKETS = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(CarCountStore.class);
+
+    enum Dimension {
+        TOTAL, MAKE, MODEL, MAKE_MODEL, PRICE
+    }
+
+    private static final Key TOTAL = new Key(Dimension.TOTAL, null, null, null);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final IMap<Key, Long> counters;
+
+    /**
+     * Incremented on every change, so that corrections computed concurrently with a change are not applied.
+     */
+    private final IAtomicLong generation;
+
+    /**
+     * Holds no entry: its key lock is held while reconciling, as the CP subsystem which provides locks is not enabled.
+     */
+    private final IMap<String, Boolean> reconciliation;
+
+    private final CarRepository carRepository;
+
+    private final ApplicationProperties.Counters properties;
+
+    private final boolean ignoreCase;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    @SuppressWarnings("deprecation")
+    public CarCountStore(HazelcastInstance hazelcastInstance, CarRepository carRepository, ApplicationProperties applicationProperties,
+                         MeterRegistry meterRegistry) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.counters = hazelcastInstance.getMap(MAP_NAME);
+        // The CP subsystem is not enabled: a change missed because of a split cluster is fixed by the next reconciliation
+        this.generation = hazelcastInstance.getAtomicLong(MAP_NAME + ".generation");
+        this.reconciliation = hazelcastInstance.getMap(MAP_NAME + ".reconciliation");
+        this.carRepository = carRepository;
+        this.properties = applicationProperties.getCounters();
+        this.ignoreCase = applicationProperties.getDatabase().isIgnoreCase();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cars.count.store")
+            .description("Counts answered, or not, by the car counters")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Return the number of cars matching the criteria, if it has one of the shapes covered by the counters:
+     * no filter, {@code make.equals}, {@code model.equals}, both, or a {@code price.greaterThanOrEqual} and
+     * {@code price.lessThan} range aligned on the price buckets.
+     *
+     * @param criteria the criteria to count.
+     * @return the number of matching cars, or empty if it must be counted by the database.
+     */
+    public OptionalLong count(CarCriteria criteria) {
+        if (!isUsable()) {
+            return OptionalLong.empty();
+        }
+        List<Key> keys = keys(criteria);
+        if (keys.isEmpty() || !counters.containsKey(TOTAL)) {
+            misses.increment();
+            return OptionalLong.empty();
+        }
+        hits.increment();
+        return OptionalLong.of(counters.getAll(new HashSet<>(keys)).values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Apply a committed change of cars to the counters.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChange(CarChangeEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // Before the counters are changed, so that a reconciliation reading them meanwhile does not correct them
+        generation.incrementAndGet();
+        if (!counters.containsKey(TOTAL)) {
+            // The next reconciliation will count them
+            return;
+        }
+        Map<Key, Long> deltas = new HashMap<>();
+        for (CarChangeEvent.Change change : event.getChanges()) {
+            if (change.getBefore() != null) {
+                keys(change.getBefore()).forEach(key -> deltas.merge(key, -1L, Long::sum));
+            }
+            if (change.getAfter() != null) {
+                keys(change.getAfter()).forEach(key -> deltas.merge(key, 1L, Long::sum));
+            }
+        }
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                counters.executeOnKey(key, new Increment(delta));
+            }
+        });
+    }
+
+    /**
+     * Recompute all the counters from the database, on the oldest member of the cluster only.
+     * <p>
+     * The counters and the database are read, then the difference is added to each counter, so that a change applied
+     * meanwhile is neither overwritten nor lost. The corrections are dropped if a change was applied while they were
+     * computed, as the counters may then already include a change which the database did not show, or the opposite:
+     * they are computed again by the next reconciliation. A change committed before the database is read but applied
+     * to the counters only after they are read is still counted twice, until the next reconciliation.
+     */
+    @Scheduled(fixedDelayString = "${application.counters.reconciliation-delay:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        if (!properties.isEnabled() || !hazelcastInstance.getCluster().getMembers().iterator().next().localMember()) {
+            return;
+        }
+        // Held in case the oldest member left while another one was reconciling
+        if (!reconciliation.tryLock(MAP_NAME)) {
+            log.debug("Car counters are already being reconciled");
+            return;
+        }
+        try {
+            long startGeneration = generation.get();
+            log.debug("Reconciling car counters");
+            Map<Key, Long> current = new HashMap<>(counters);
+            Map<Key, Long> actual = count();
+            if (generation.get() != startGeneration) {
+                log.debug("Cars changed while reconciling their counters, leaving them to the next reconciliation");
+                return;
+            }
+            Set<Key> keys = new HashSet<>(current.keySet());
+            keys.addAll(actual.keySet());
+            keys.remove(TOTAL);
+            int drift = 0;
+            for (Key key : keys) {
+                long delta = actual.getOrDefault(key, 0L) - current.getOrDefault(key, 0L);
+                if (delta != 0) {
+                    drift++;
+                    counters.executeOnKey(key, new Increment(delta));
+                }
+            }
+            // Last, and even when it is right, as it marks the counters as reconciled
+            long delta = actual.get(TOTAL) - current.getOrDefault(TOTAL, 0L);
+            if (delta != 0 && current.containsKey(TOTAL)) {
+                drift++;
+            }
+            counters.executeOnKey(TOTAL, new Increment(delta));
+            if (drift > 0) {
+                log.info("Fixed {} drifting car counters", drift);
+            }
+        } finally {
+            reconciliation.unlock(MAP_NAME);
+        }
+    }
+
+    /**
+     * @return the value of every counter, counted by the database.
+     */
+    private Map<Key, Long> count() {
+        Map<Key, Long> actual = new HashMap<>();
+        actual.put(TOTAL, carRepository.count());
+        for (Object[] row : carRepository.countGroupedByMakeAndModel()) {
+            String make = (String) row[0];
+            String model = (String) row[1];
+            long count = (Long) row[2];
+            if (make != null) {
+                actual.merge(new Key(Dimension.MAKE, normalize(make), null, null), count, Long::sum);
+            }
+            if (model != null) {
+                actual.merge(new Key(Dimension.MODEL, null, normalize(model), null), count, Long::sum);
+            }
+            if (make != null && model != null) {
+                actual.merge(new Key(Dimension.MAKE_MODEL, normalize(make), normalize(model), null), count, Long::sum);
+            }
+        }
+        for (Object[] row : carRepository.countGroupedByPriceBucket(properties.getPriceBucketWidth())) {
+            long bucket = ((Number) row[0]).longValue();
+            long below = ((Number) row[2]).longValue();
+            long above = ((Number) row[3]).longValue();
+            actual.merge(new Key(Dimension.PRICE, null, null, bucket), (Long) row[1] - below - above, Long::sum);
+            actual.merge(new Key(Dimension.PRICE, null, null, bucket - 1), below, Long::sum);
+            actual.merge(new Key(Dimension.PRICE, null, null, bucket + 1), above, Long::sum);
+        }
+        actual.values().removeIf(count -> count == 0);
+        actual.putIfAbsent(TOTAL, 0L);
+        return actual;
+    }
+
+    private boolean isUsable() {
+        return properties.isEnabled() &&
+            (!TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * @return the counters to sum to answer the criteria, or an empty list if the criteria is not covered.
+     */
+    List<Key> keys(CarCriteria criteria) {
+        if (criteria == null) {
+            return Collections.singletonList(TOTAL);
+        }
+        if (criteria.getId() != null && !criteria.getId().equals(new LongFilter())) {
+            return Collections.emptyList();
+        }
+        String make = equalsOnly(criteria.getMake());
+        String model = equalsOnly(criteria.getModel());
+        boolean hasMake = criteria.getMake() != null && !criteria.getMake().equals(new StringFilter());
+        boolean hasModel = criteria.getModel() != null && !criteria.getModel().equals(new StringFilter());
+        boolean hasPrice = criteria.getPrice() != null && !criteria.getPrice().equals(new DoubleFilter());
+        if ((hasMake && make == null) || (hasModel && model == null)) {
+            return Collections.emptyList();
+        }
+        if (hasPrice) {
+            return hasMake || hasModel ? Collections.emptyList() : priceKeys(criteria.getPrice());
+        }
+        if (hasMake && hasModel) {
+            return Collections.singletonList(new Key(Dimension.MAKE_MODEL, normalize(make), normalize(model), null));
+        }
+        if (hasMake) {
+            return Collections.singletonList(new Key(Dimension.MAKE, normalize(make), null, null));
+        }
+        if (hasModel) {
+            return Collections.singletonList(new Key(Dimension.MODEL, null, normalize(model), null));
+        }
+        return Collections.singletonList(TOTAL);
+    }
+
+    /**
+     * @return the counters incremented by the car.
+     */
+    private List<Key> keys(Car car) {
+        List<Key> keys = new ArrayList<>(5);
+        keys.add(TOTAL);
+        if (car.getMake() != null) {
+            keys.add(new Key(Dimension.MAKE, normalize(car.getMake()), null, null));
+        }
+        if (car.getModel() != null) {
+            keys.add(new Key(Dimension.MODEL, null, normalize(car.getModel()), null));
+        }
+        if (car.getMake() != null && car.getModel() != null) {
+            keys.add(new Key(Dimension.MAKE_MODEL, normalize(car.getMake()), normalize(car.getModel()), null));
+        }
+        if (car.getPrice() != null) {
+            keys.add(new Key(Dimension.PRICE, null, null, bucket(car.getPrice(), properties.getPriceBucketWidth())));
+        }
+        return keys;
+    }
+
+    private List<Key> priceKeys(DoubleFilter filter) {
+        DoubleFilter others = filter.copy();
+        others.setGreaterThanOrEqual(null);
+        others.setLessThan(null);
+        Double from = filter.getGreaterThanOrEqual();
+        Double to = filter.getLessThan();
+        double width = properties.getPriceBucketWidth();
+        if (!others.equals(new DoubleFilter()) || from == null || to == null ||
+            !isBucketBoundary(from, width) || !isBucketBoundary(to, width)) {
+            return Collections.emptyList();
+        }
+        long first = bucket(from, width);
+        long last = bucket(to, width);
+        if (last <= first || last - first > MAX_BUCKETS) {
+            return Collections.emptyList();
+        }
+        List<Key> keys = new ArrayList<>((int) (last - first));
+        for (long bucket = first; bucket < last; bucket++) {
+            keys.add(new Key(Dimension.PRICE, null, null, bucket));
+        }
+        return keys;
+    }
+
+    /**
+     * @return the value of {@code equals} if it is the only condition of the filter, {@code null} otherwise.
+     */
+    private static String equalsOnly(StringFilter filter) {
+        if (filter == null || filter.getEquals() == null) {
+            return null;
+        }
+        StringFilter others = filter.copy();
+        others.setEquals(null);
+        return others.equals(new StringFilter()) ? filter.getEquals() : null;
+    }
+
+    private String normalize(String value) {
+        return ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+    }
+
+    /**
+     * Same as {@code floor(price / width)}, corrected for rounding so that a price is in bucket {@code b}
+     * exactly when {@code price >= b * width and price < (b + 1) * width}.
+     */
+    static long bucket(double price, double width) {
+        long bucket = (long) Math.floor(price / width);
+        if (price < bucket * width) {
+            bucket--;
+        } else if (price >= (bucket + 1) * width) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static boolean isBucketBoundary(double price, double width) {
+        return bucket(price, width) * width == price;
+    }
+
+    static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Dimension dimension;
+
+        private final String make;
+
+        private final String model;
+
+        private final Long bucket;
+
+        Key(Dimension dimension, String make, String model, Long bucket) {
+            this.dimension = dimension;
+            this.make = make;
+            this.model = model;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return dimension == key.dimension &&
+                Objects.equals(make, key.make) &&
+                Objects.equals(model, key.model) &&
+                Objects.equals(bucket, key.bucket);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, make, model, bucket);
+        }
+
+        @Override
+        public String toString() {
+            return dimension + "{" +
+                (make != null ? "make='" + make + "'" : "") +
+                (model != null ? " model='" + model + "'" : "") +
+                (bucket != null ? " bucket=" + bucket : "") +
+                "}";
+        }
+    }
+
+    /**
+     * Adds a delta to a counter on the member which owns it, removing it when it drops to zero
+     * (the total is kept, as it marks the counters as reconciled).
+     */
+    static final class Increment extends AbstractEntryProcessor<Key, Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long delta;
+
+        Increment(long delta) {
+            this.delta = delta;
+        }
+
+        @Override
+        public Object process(Map.Entry<Key, Long> entry) {
+            long value = (entry.getValue() == null ? 0 : entry.getValue()) + delta;
+            if (value <= 0 && !TOTAL.equals(entry.getKey())) {
+                entry.setValue(null);
+            } else {
+                entry.setValue(Math.max(value, 0));
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.cars.app.service;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarCriteria;
+
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+import java.util.Locale;
+
+/**
+ * Evaluates a {@link CarCriteria} against a {@link Car} in memory, with the same semantics as the
+ * {@link org.springframework.data.jpa.domain.Specification} built by {@link CarQueryService#createSpecification(CarCriteria)}.
+ * <p>
+ * As in SQL, any condition on a {@code null} value is false, except {@code specified=false}.
+ * String equality depends on the collation of the database: it is case sensitive with H2 and binary collations
+ * but case insensitive with the default MySQL collation, so callers choose with {@code ignoreCase}.
+ */
+public final class CarCriteriaMatcher {
+
+    private CarCriteriaMatcher() {
+    }
+
+    /**
+     * @param criteria the criteria to evaluate, {@code null} matches everything.
+     * @param car the car to evaluate the criteria against.
+     * @param ignoreCase whether string equality ignores case.
+     * @return true if the database would return the car for the criteria.
+     */
+    public static boolean matches(CarCriteria criteria, Car car, boolean ignoreCase) {
+        return criteria == null || (
+            matches(criteria.getId(), car.getId()) &&
+                matches(criteria.getMake(), car.getMake(), ignoreCase) &&
+                matches(criteria.getModel(), car.getModel(), ignoreCase) &&
+                matches(criteria.getPrice(), car.getPrice()));
+    }
+
+    /**
+     * @return true if the car is returned for the criteria with case sensitive or case insensitive string equality,
+     * that is whether the database may return it whatever its collation.
+     */
+    public static boolean mayMatch(CarCriteria criteria, Car car) {
+        return matches(criteria, car, false) || matches(criteria, car, true);
+    }
+
+    /**
+     * Whether a change of a car modifies the result of a query for the criteria, whatever the collation of the database.
+     *
+     * @param criteria the criteria of the query.
+     * @param before the car before the change, {@code null} if it was created.
+     * @param after the car after the change, {@code null} if it was deleted.
+     * @return true if the car entered or left the result of the query.
+     */
+    public static boolean membershipChanged(CarCriteria criteria, Car before, Car after) {
+        return membershipChanged(criteria, before, after, false) || membershipChanged(criteria, before, after, true);
+    }
+
+    private static boolean membershipChanged(CarCriteria criteria, Car before, Car after, boolean ignoreCase) {
+        boolean wasMatching = before != null && matches(criteria, before, ignoreCase);
+        boolean isMatching = after != null && matches(criteria, after, ignoreCase);
+        return wasMatching != isMatching;
+    }
+
+    static boolean matches(StringFilter filter, String value, boolean ignoreCase) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            return value != null && equal(filter.getEquals(), value, ignoreCase);
+        }
+        if (filter.getIn() != null) {
+            return value != null && filter.getIn().stream().anyMatch(candidate -> equal(candidate, value, ignoreCase));
+        }
+        if (filter.getNotIn() != null) {
+            return value != null && filter.getNotIn().stream().noneMatch(candidate -> equal(candidate, value, ignoreCase));
+        }
+        if (filter.getContains() != null) {
+            return value != null && contains(value, filter.getContains());
+        }
+        if (filter.getDoesNotContain() != null) {
+            return value != null && !contains(value, filter.getDoesNotContain());
+        }
+        if (filter.getNotEquals() != null) {
+            return value != null && !equal(filter.getNotEquals(), value, ignoreCase);
+        }
+        return matchesSpecified(filter, value);
+    }
+
+    static <X extends Comparable<? super X>> boolean matches(RangeFilter<X> filter, X value) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null) {
+            return value != null && filter.getEquals().compareTo(value) == 0;
+        }
+        if (filter.getIn() != null) {
+            return value != null && filter.getIn().stream().anyMatch(candidate -> candidate.compareTo(value) == 0);
+        }
+        if (!matchesSpecified(filter, value)) {
+            return false;
+        }
+        boolean hasCondition = filter.getNotEquals() != null || filter.getNotIn() != null || filter.getGreaterThan() != null ||
+            filter.getGreaterThanOrEqual() != null || filter.getLessThan() != null || filter.getLessThanOrEqual() != null;
+        if (!hasCondition) {
+            return true;
+        }
+        return value != null &&
+            (filter.getNotEquals() == null || filter.getNotEquals().compareTo(value) != 0) &&
+            (filter.getNotIn() == null || filter.getNotIn().stream().noneMatch(candidate -> candidate.compareTo(value) == 0)) &&
+            (filter.getGreaterThan() == null || value.compareTo(filter.getGreaterThan()) > 0) &&
+            (filter.getGreaterThanOrEqual() == null || value.compareTo(filter.getGreaterThanOrEqual()) >= 0) &&
+            (filter.getLessThan() == null || value.compareTo(filter.getLessThan()) < 0) &&
+            (filter.getLessThanOrEqual() == null || value.compareTo(filter.getLessThanOrEqual()) <= 0);
+    }
+
+    private static boolean matchesSpecified(Filter<?> filter, Object value) {
+        return filter.getSpecified() == null || filter.getSpecified() == (value != null);
+    }
+
+    private static boolean equal(String expected, String value, boolean ignoreCase) {
+        return ignoreCase ? expected.equalsIgnoreCase(value) : expected.equals(value);
+    }
+
+    /**
+     * Same as {@code upper(value) like upper('%' || text || '%')}.
+     */
+    private static boolean contains(String value, String text) {
+        return value.toUpperCase(Locale.ROOT).contains(text.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,176 @@
+package com.cars.app.service;
+
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a {@link CarCriteria} to a SQL condition on the {@code car} table with named parameters, with the
+ * same semantics as the {@link org.springframework.data.jpa.domain.Specification} built by
+ * {@link CarQueryService#createSpecification(CarCriteria)}, for the queries which do not go through JPA.
+ * <p>
+ * The {@code :name} parameters are understood by both {@code NamedParameterJdbcTemplate} and the R2DBC
+ * {@code DatabaseClient}, which expand the collections of the {@code in} filters.
+ */
+public final class CarCriteriaSql {
+
+    private final List<String> conditions = new ArrayList<>();
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    private CarCriteriaSql() {
+    }
+
+    /**
+     * @param criteria the criteria to translate, {@code null} matches everything.
+     * @return the translated criteria.
+     */
+    public static CarCriteriaSql of(CarCriteria criteria) {
+        CarCriteriaSql sql = new CarCriteriaSql();
+        if (criteria != null) {
+            sql.range(criteria.getId(), "id");
+            sql.string(criteria.getMake(), "make");
+            sql.string(criteria.getModel(), "model");
+            sql.range(criteria.getPrice(), "price");
+        }
+        return sql;
+    }
+
+    /**
+     * Restrict the cars to the ones after the cursor, with the same semantics as
+     * {@link CarQueryService#createSeekSpecification(CarCursor)}, for a query ordered by {@code price, id}.
+     *
+     * @param cursor the position of the last car of the previous page, {@code null} for the first page.
+     * @return this object.
+     */
+    public CarCriteriaSql after(CarCursor cursor) {
+        if (cursor == null) {
+            return this;
+        }
+        if (cursor.getPrice() == null) {
+            conditions.add("((price is null and id > " + parameter(cursor.getId()) + ") or price is not null)");
+        } else {
+            String price = parameter(cursor.getPrice());
+            conditions.add("(price > " + price + " or (price = " + price + " and id > " + parameter(cursor.getId()) + "))");
+        }
+        return this;
+    }
+
+    /**
+     * @return the {@code where} clause, with a leading space, or an empty string if there is no condition.
+     */
+    public String getWhereClause() {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    /**
+     * @return the values of the named parameters of the {@code where} clause.
+     */
+    public Map<String, Object> getParameters() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * Same as {@code QueryService.buildSpecification(StringFilter, ...)}: only the first condition of the filter applies.
+     */
+    private void string(StringFilter filter, String column) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getEquals() != null) {
+            add(column + " = ", filter.getEquals());
+        } else if (filter.getIn() != null) {
+            in(column, filter.getIn(), false);
+        } else if (filter.getNotIn() != null) {
+            in(column, filter.getNotIn(), true);
+        } else if (filter.getContains() != null) {
+            add("upper(" + column + ") like ", wrapLikeQuery(filter.getContains()));
+        } else if (filter.getDoesNotContain() != null) {
+            add("upper(" + column + ") not like ", wrapLikeQuery(filter.getDoesNotContain()));
+        } else if (filter.getNotEquals() != null) {
+            add(column + " <> ", filter.getNotEquals());
+        } else if (filter.getSpecified() != null) {
+            specified(column, filter.getSpecified());
+        }
+    }
+
+    /**
+     * Same as {@code QueryService.buildSpecification(RangeFilter, ...)}: {@code equals} or else {@code in} apply alone,
+     * otherwise all the other conditions apply.
+     */
+    private <X extends Comparable<? super X>> void range(RangeFilter<X> filter, String column) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getEquals() != null) {
+            add(column + " = ", filter.getEquals());
+            return;
+        }
+        if (filter.getIn() != null) {
+            in(column, filter.getIn(), false);
+            return;
+        }
+        if (filter.getSpecified() != null) {
+            specified(column, filter.getSpecified());
+        }
+        if (filter.getNotEquals() != null) {
+            add(column + " <> ", filter.getNotEquals());
+        }
+        if (filter.getNotIn() != null) {
+            in(column, filter.getNotIn(), true);
+        }
+        if (filter.getGreaterThan() != null) {
+            add(column + " > ", filter.getGreaterThan());
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            add(column + " >= ", filter.getGreaterThanOrEqual());
+        }
+        if (filter.getLessThan() != null) {
+            add(column + " < ", filter.getLessThan());
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            add(column + " <= ", filter.getLessThanOrEqual());
+        }
+    }
+
+    private void in(String column, List<?> values, boolean negated) {
+        if (values.isEmpty()) {
+            // An empty list cannot be expanded, and as in Hibernate an empty in matches nothing
+            conditions.add(negated ? column + " is not null" : "1 = 0");
+            return;
+        }
+        add(column + (negated ? " not in " : " in "), values);
+    }
+
+    private void specified(String column, boolean specified) {
+        conditions.add(column + (specified ? " is not null" : " is null"));
+    }
+
+    private void add(String condition, Object value) {
+        conditions.add(condition + (value instanceof List ? "(" + parameter(value) + ")" : parameter(value)));
+    }
+
+    /**
+     * @return the placeholder of a new parameter with the value.
+     */
+    private String parameter(Object value) {
+        String name = "p" + parameters.size();
+        parameters.put(name, value);
+        return ":" + name;
+    }
+
+    /**
+     * Same as {@code QueryService.wrapLikeQuery}.
+     */
+    private static String wrapLikeQuery(String text) {
+        return "%" + text.toUpperCase() + "%";
+    }
+}
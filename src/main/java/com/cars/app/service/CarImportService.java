@@ -0,0 +1,481 @@
+package com.cars.app.service;
+
+import com.cars.app.config.ApplicationProperties;
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarBulkResult;
+import com.cars.app.service.dto.CarImportResult;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Service importing {@link Car} entities from a CSV or NDJSON stream, at runtime and in constant memory.
+ * <p>
+ * The import is a pipeline of bounded stages: the calling thread reads the stream and cuts it into chunks of
+ * {@code application.bulk.chunk-size} lines, which are parsed and validated by {@code application.import.parser-threads}
+ * threads, then inserted with {@link CarService#createAll(List)}, one transaction per chunk, by
+ * {@code application.import.writer-threads} threads. Parsed chunks wait for the writers in a queue of
+ * {@code application.import.queue-capacity} chunks: when it is full the parsers wait, and then the reading does,
+ * so that parsing never outruns the database.
+ * <p>
+ * The parser and writer threads are started with the service, with the thread counts configured at startup, and
+ * shared by the imports, which run one at a time.
+ * <p>
+ * The ids and versions of the imported cars are ignored, each car is created with a new id.
+ */
+@Service
+public class CarImportService {
+
+    /**
+     * Format of an imported stream.
+     */
+    public enum Format {
+        /**
+         * Lines of {@code ;} separated values, with a header naming the columns, as {@code fake-data/car.csv}:
+         * the {@code make}, {@code model} and {@code price} columns are imported, the other ones are ignored.
+         * Values can be double-quoted, but cannot span several lines.
+         */
+        CSV,
+        /**
+         * One JSON car per line, as exported by {@code GET /api/cars/export?format=ndjson}.
+         */
+        NDJSON
+    }
+
+    private static final char CSV_SEPARATOR = ';';
+
+    private static final char CSV_QUOTE = '"';
+
+    private static final int MAX_LENGTH = 255;
+
+    /**
+     * Marks the end of the parsed chunks for a writer, compared by identity.
+     */
+    private static final List<Car> END = new ArrayList<>(0);
+
+    private final Logger log = LoggerFactory.getLogger(CarImportService.class);
+
+    private final CarService carService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectReader carReader;
+
+    private final int parserThreads;
+
+    private final int writerThreads;
+
+    private final ExecutorService parsers;
+
+    private final ExecutorService writers;
+
+    /**
+     * Held by the running import, as the writers of a second one would wait for the threads of the first one.
+     */
+    private final Semaphore running = new Semaphore(1);
+
+    public CarImportService(CarService carService, ApplicationProperties applicationProperties, ObjectMapper objectMapper) {
+        this.carService = carService;
+        this.applicationProperties = applicationProperties;
+        this.carReader = objectMapper.readerFor(Car.class);
+        ApplicationProperties.Import properties = applicationProperties.getImport();
+        this.parserThreads = properties.getParserThreads() > 0 ? properties.getParserThreads() : Runtime.getRuntime().availableProcessors();
+        this.writerThreads = properties.getWriterThreads();
+        this.parsers = Executors.newFixedThreadPool(parserThreads, new CustomizableThreadFactory("car-import-parser-"));
+        this.writers = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("car-import-writer-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        parsers.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Import the cars of a stream.
+     * <p>
+     * Invalid lines are counted and reported, up to {@code application.import.max-errors}, and the import goes on.
+     * Chunks which fail to be inserted are counted as failed, the other chunks stay inserted.
+     *
+     * @param input the UTF-8 stream to import.
+     * @param format the format of the stream.
+     * @param progressListener called by the calling thread every {@code application.import.progress-interval}
+     * milliseconds with the progress of the import.
+     * @return the outcome of the import.
+     * @throws IOException if the stream cannot be read.
+     * @throws IllegalArgumentException if the CSV header does not have the imported columns.
+     * @throws ConcurrencyFailureException if another import is running.
+     */
+    public CarImportResult importCars(InputStream input, Format format, Consumer<CarImportResult> progressListener) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new ConcurrencyFailureException("Another import of cars is running");
+        }
+        try {
+            return doImportCars(input, format, progressListener);
+        } finally {
+            running.release();
+        }
+    }
+
+    private CarImportResult doImportCars(InputStream input, Format format, Consumer<CarImportResult> progressListener) throws IOException {
+        ApplicationProperties.Import properties = applicationProperties.getImport();
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        // Chunks of lines being parsed or waiting for a parser
+        int maxParsing = parserThreads * 2;
+        long start = System.currentTimeMillis();
+        Progress progress = new Progress(properties.getMaxErrors(), properties.getProgressInterval(), progressListener);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        LineParser parser;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return progress.snapshot(true);
+            }
+            lineNumber++;
+            parser = csvParser(header);
+        } else {
+            parser = this::parseJson;
+        }
+
+        BlockingQueue<List<Car>> parsed = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Semaphore parsing = new Semaphore(maxParsing);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<Future<?>> writing = new ArrayList<>(writerThreads);
+        boolean done = false;
+        try {
+            for (int i = 0; i < writerThreads; i++) {
+                writing.add(writers.submit(() -> {
+                    write(parsed, progress);
+                    return null;
+                }));
+            }
+            List<String> lines = new ArrayList<>(chunkSize);
+            long firstLine = lineNumber + 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLine = lineNumber;
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    acquire(parsing, 1, progress);
+                    parsers.execute(parseTask(parser, lines, firstLine, parsed, parsing, cancelled, progress));
+                    lines = new ArrayList<>(chunkSize);
+                }
+                progress.reportIfDue();
+            }
+            if (!lines.isEmpty()) {
+                acquire(parsing, 1, progress);
+                parsers.execute(parseTask(parser, lines, firstLine, parsed, parsing, cancelled, progress));
+            }
+            // All the chunks are parsed and queued once all the permits are released
+            acquire(parsing, maxParsing, progress);
+            for (int i = 0; i < writing.size(); i++) {
+                parsed.put(END);
+            }
+            for (Future<?> future : writing) {
+                await(future, progress);
+            }
+            done = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing cars", e);
+        } finally {
+            if (!done) {
+                // Free the shared threads for the next import: the parsers drop their chunks, the writers are interrupted
+                cancelled.set(true);
+                writing.forEach(future -> future.cancel(true));
+            }
+        }
+        CarImportResult result = progress.snapshot(true);
+        log.info("Imported {} of {} cars in {} ms", result.getImported(), result.getLines(), System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private Runnable parseTask(LineParser parser, List<String> lines, long firstLine, BlockingQueue<List<Car>> parsed,
+                               Semaphore parsing, AtomicBoolean cancelled, Progress progress) {
+        return () -> {
+            try {
+                if (cancelled.get()) {
+                    return;
+                }
+                List<Car> cars = new ArrayList<>(lines.size());
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i);
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    progress.lines.incrementAndGet();
+                    try {
+                        cars.add(validate(parser.parse(line)));
+                    } catch (IllegalArgumentException e) {
+                        progress.invalid(firstLine + i, e.getMessage());
+                    }
+                }
+                if (!cars.isEmpty()) {
+                    while (!parsed.offer(cars, progress.interval, TimeUnit.MILLISECONDS)) {
+                        if (cancelled.get()) {
+                            return;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                parsing.release();
+            }
+        };
+    }
+
+    private void write(BlockingQueue<List<Car>> parsed, Progress progress) throws InterruptedException {
+        List<Car> cars;
+        while ((cars = parsed.take()) != END) {
+            try {
+                for (CarBulkResult result : carService.createAll(cars)) {
+                    if (result.getStatus() == CarBulkResult.Status.CREATED) {
+                        progress.imported.incrementAndGet();
+                    } else {
+                        progress.failed.incrementAndGet();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to import a chunk of {} Cars: {}", cars.size(), e.getMessage());
+                progress.failed.addAndGet(cars.size());
+            }
+        }
+    }
+
+    /**
+     * Acquire permits, reporting the progress while waiting for them.
+     */
+    private static void acquire(Semaphore semaphore, int permits, Progress progress) throws InterruptedException {
+        while (!semaphore.tryAcquire(permits, progress.interval, TimeUnit.MILLISECONDS)) {
+            progress.reportIfDue();
+        }
+    }
+
+    /**
+     * Wait for a writer to be done, reporting the progress while waiting for it.
+     */
+    private static void await(Future<?> future, Progress progress) throws InterruptedException {
+        while (true) {
+            try {
+                future.get(progress.interval, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                progress.reportIfDue();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to import cars", e.getCause());
+            }
+        }
+    }
+
+    private LineParser csvParser(String header) {
+        List<String> columns = Arrays.asList(splitCsv(header));
+        int columnCount = columns.size();
+        int makeIndex = columnIndex(columns, "make");
+        int modelIndex = columnIndex(columns, "model");
+        int priceIndex = columnIndex(columns, "price");
+        return line -> {
+            String[] values = splitCsv(line);
+            if (values.length != columnCount) {
+                throw new IllegalArgumentException("Expected " + columnCount + " values, got " + values.length);
+            }
+            Car car = new Car()
+                .make(emptyToNull(values[makeIndex]))
+                .model(emptyToNull(values[modelIndex]));
+            String price = emptyToNull(values[priceIndex].trim());
+            if (price != null) {
+                try {
+                    car.setPrice(Double.valueOf(price));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid price " + price);
+                }
+            }
+            return car;
+        };
+    }
+
+    private static int columnIndex(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("The CSV header " + columns + " has no " + name + " column");
+    }
+
+    /**
+     * Split a CSV line on the separators which are not between double quotes, {@code ""} being a quote in a quoted value.
+     */
+    private static String[] splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == CSV_QUOTE && i + 1 < line.length() && line.charAt(i + 1) == CSV_QUOTE) {
+                    value.append(CSV_QUOTE);
+                    i++;
+                } else if (c == CSV_QUOTE) {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == CSV_QUOTE) {
+                quoted = true;
+            } else if (c == CSV_SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values.toArray(new String[0]);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private Car parseJson(String line) {
+        Car car;
+        try {
+            car = carReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (car == null) {
+            throw new IllegalArgumentException("Not a car");
+        }
+        return car;
+    }
+
+    /**
+     * Check that the car fits in the {@code car} table, and clear its id and version.
+     */
+    private static Car validate(Car car) {
+        if (car.getMake() != null && car.getMake().length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("The make is longer than " + MAX_LENGTH + " characters");
+        }
+        if (car.getModel() != null && car.getModel().length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("The model is longer than " + MAX_LENGTH + " characters");
+        }
+        if (car.getPrice() != null && !Double.isFinite(car.getPrice())) {
+            throw new IllegalArgumentException("Invalid price " + car.getPrice());
+        }
+        car.setId(null);
+        car.setVersion(null);
+        return car;
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+
+        /**
+         * @return the car of a non-blank line.
+         * @throws IllegalArgumentException if the line is not a valid car.
+         */
+        Car parse(String line);
+    }
+
+    /**
+     * Counters of an import, updated by all its threads.
+     */
+    private static class Progress {
+
+        private final AtomicLong lines = new AtomicLong();
+
+        private final AtomicLong imported = new AtomicLong();
+
+        private final AtomicLong invalid = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final List<CarImportResult.LineError> errors = new ArrayList<>();
+
+        private final int maxErrors;
+
+        private final long interval;
+
+        private final Consumer<CarImportResult> listener;
+
+        /**
+         * Only used by the reading thread.
+         */
+        private long nextReport;
+
+        private Progress(int maxErrors, long interval, Consumer<CarImportResult> listener) {
+            this.maxErrors = maxErrors;
+            this.interval = interval;
+            this.listener = listener;
+            this.nextReport = System.currentTimeMillis() + interval;
+        }
+
+        private void invalid(long line, String message) {
+            invalid.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new CarImportResult.LineError(line, message));
+                }
+            }
+        }
+
+        private void reportIfDue() {
+            long now = System.currentTimeMillis();
+            if (now >= nextReport) {
+                nextReport = now + interval;
+                listener.accept(snapshot(false));
+            }
+        }
+
+        private CarImportResult snapshot(boolean done) {
+            CarImportResult result = new CarImportResult();
+            result.setLines(lines.get());
+            result.setImported(imported.get());
+            result.setInvalid(invalid.get());
+            result.setFailed(failed.get());
+            result.setDone(done);
+            synchronized (errors) {
+                result.setErrors(new ArrayList<>(errors));
+            }
+            return result;
+        }
+    }
+}
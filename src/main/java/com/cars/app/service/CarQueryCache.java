@@ -0,0 +1,325 @@
+package com.cars.app.service;
+
+import com.cars.app.config.ApplicationProperties;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarFacets;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IAtomicLong;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicate;
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the results of {@link CarQueryService} queries, stored in Hazelcast and keyed on the normalized {@link CarCriteria}.
+ * <p>
+ * Lists are stored as ids and resolved through the {@link Car} second-level cache region, so an update of a car which
+ * stays in a result does not invalidate it. An entry is only evicted when a committed change makes a car enter or leave
+ * its result, as told by {@link CarCriteriaMatcher#membershipChanged(CarCriteria, Car, Car)}. Facets depend on the values
+ * of the matching cars, so they are evicted when a car which may match the criteria changes.
+ * <p>
+ * Queries run inside a read-write transaction bypass the cache, as they may see uncommitted changes.
+ */
+@Service
+public class CarQueryCache {
+
+    public static final String MAP_NAME = "com.cars.app.service.CarQueryCache";
+
+    private final Logger log = LoggerFactory.getLogger(CarQueryCache.class);
+
+    enum Kind {
+        LIST, COUNT, FACETS
+    }
+
+    private final IMap<Key, Object> results;
+
+    /**
+     * Incremented on every invalidation, so that a result computed concurrently with a change is not kept.
+     */
+    private final IAtomicLong generation;
+
+    private final CarRepository carRepository;
+
+    private final ApplicationProperties.QueryCache properties;
+
+    private final Counter listHits;
+
+    private final Counter listMisses;
+
+    private final Counter countHits;
+
+    private final Counter countMisses;
+
+    private final Counter facetsHits;
+
+    private final Counter facetsMisses;
+
+    @SuppressWarnings("deprecation")
+    public CarQueryCache(HazelcastInstance hazelcastInstance, CarRepository carRepository, ApplicationProperties applicationProperties,
+                         MeterRegistry meterRegistry) {
+        this.results = hazelcastInstance.getMap(MAP_NAME);
+        // The CP subsystem is not enabled: a stale entry kept because of a split cluster lives at most for the time to live
+        this.generation = hazelcastInstance.getAtomicLong(MAP_NAME + ".generation");
+        this.carRepository = carRepository;
+        this.properties = applicationProperties.getQueryCache();
+        this.listHits = counter(meterRegistry, Kind.LIST, "hit");
+        this.listMisses = counter(meterRegistry, Kind.LIST, "miss");
+        this.countHits = counter(meterRegistry, Kind.COUNT, "hit");
+        this.countMisses = counter(meterRegistry, Kind.COUNT, "miss");
+        this.facetsHits = counter(meterRegistry, Kind.FACETS, "hit");
+        this.facetsMisses = counter(meterRegistry, Kind.FACETS, "miss");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Kind kind, String result) {
+        return Counter.builder("cars.query.cache")
+            .description("Lookups in the car query result cache")
+            .tag("kind", kind.name().toLowerCase())
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Return the cars matching the criteria from the cache, or from the loader if they are not cached yet.
+     *
+     * @param criteria the criteria of the query.
+     * @param loader the query to run on a cache miss.
+     * @return the matching cars.
+     */
+    public List<Car> findByCriteria(CarCriteria criteria, Supplier<List<Car>> loader) {
+        if (!isUsable()) {
+            return loader.get();
+        }
+        Key key = new Key(Kind.LIST, normalize(criteria));
+        long[] ids = (long[]) results.get(key);
+        if (ids != null) {
+            List<Car> cars = resolve(ids);
+            if (cars != null) {
+                listHits.increment();
+                return cars;
+            }
+            results.delete(key);
+        }
+        listMisses.increment();
+        long currentGeneration = generation.get();
+        List<Car> cars = loader.get();
+        if (cars.size() <= properties.getMaxIds()) {
+            store(key, cars.stream().mapToLong(Car::getId).toArray(), currentGeneration);
+        }
+        return cars;
+    }
+
+    /**
+     * Return the number of cars matching the criteria from the cache, or from the loader if it is not cached yet.
+     *
+     * @param criteria the criteria of the query.
+     * @param loader the query to run on a cache miss.
+     * @return the number of matching cars.
+     */
+    public long countByCriteria(CarCriteria criteria, LongSupplier loader) {
+        return get(new Key(Kind.COUNT, normalize(criteria)), loader::getAsLong, countHits, countMisses);
+    }
+
+    /**
+     * Return the facets of the cars matching the criteria from the cache, or from the loader if they are not cached yet.
+     *
+     * @param criteria the criteria of the query.
+     * @param loader the query to run on a cache miss.
+     * @return the facets of the matching cars.
+     */
+    public CarFacets facetsByCriteria(CarCriteria criteria, Supplier<CarFacets> loader) {
+        return get(new Key(Kind.FACETS, normalize(criteria)), loader, facetsHits, facetsMisses);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, Supplier<T> loader, Counter hits, Counter misses) {
+        if (!isUsable()) {
+            return loader.get();
+        }
+        T value = (T) results.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        long currentGeneration = generation.get();
+        T result = loader.get();
+        store(key, result, currentGeneration);
+        return result;
+    }
+
+    /**
+     * Evict the results which a committed change of cars has modified.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChange(CarChangeEvent event) {
+        evict(event);
+    }
+
+    /**
+     * Evict the results which a change of cars has modified, and prevent those being computed from being stored.
+     * <p>
+     * Also used by {@link CarTextIndex} once it has applied a change committed by another member.
+     *
+     * @param event the change.
+     */
+    public void evict(CarChangeEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        generation.incrementAndGet();
+        log.debug("Evicting the cached cars query results modified by {} changes", event.getChanges().size());
+        // Run by each member on the entries it owns, instead of fetching all the keys here
+        results.removeAll(new ModifiedBy(event));
+    }
+
+    private boolean isUsable() {
+        return properties.isEnabled() &&
+            (!TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Store the result, unless an invalidation happened since the query was started: it may have missed the change.
+     * The generation is checked after the result is stored, so that an invalidation running concurrently either
+     * sees the new entry or is seen here.
+     */
+    private void store(Key key, Object value, long queryGeneration) {
+        results.set(key, value);
+        if (generation.get() != queryGeneration) {
+            results.delete(key);
+        }
+    }
+
+    /**
+     * @return the cars, or {@code null} if one of them does not exist anymore.
+     */
+    private List<Car> resolve(long[] ids) {
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        List<Car> cars = carRepository.loadAll(idList);
+        return cars.contains(null) ? null : cars;
+    }
+
+    /**
+     * Copy the criteria without its empty filters and with its {@code in} and {@code notIn} values sorted,
+     * so that equivalent queries share the same entry.
+     */
+    static CarCriteria normalize(CarCriteria criteria) {
+        CarCriteria normalized = new CarCriteria();
+        if (criteria != null) {
+            normalized.setId(normalize(criteria.getId(), new LongFilter()));
+            normalized.setMake(normalize(criteria.getMake(), new StringFilter()));
+            normalized.setModel(normalize(criteria.getModel(), new StringFilter()));
+            normalized.setPrice(normalize(criteria.getPrice(), new DoubleFilter()));
+        }
+        return normalized;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<? super T>, F extends Filter<T>> F normalize(F filter, F empty) {
+        if (filter == null || filter.equals(empty)) {
+            return null;
+        }
+        F copy = (F) filter.copy();
+        if (copy.getIn() != null) {
+            copy.setIn(new ArrayList<>(new TreeSet<>(copy.getIn())));
+        }
+        if (copy.getNotIn() != null) {
+            copy.setNotIn(new ArrayList<>(new TreeSet<>(copy.getNotIn())));
+        }
+        return copy;
+    }
+
+    /**
+     * Matches the entries whose result a change modifies.
+     */
+    static final class ModifiedBy implements Predicate<Key, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CarChangeEvent event;
+
+        ModifiedBy(CarChangeEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public boolean apply(Map.Entry<Key, Object> entry) {
+            Key key = entry.getKey();
+            return event.getChanges().stream().anyMatch(key::isModifiedBy);
+        }
+    }
+
+    static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Kind kind;
+
+        private final CarCriteria criteria;
+
+        Key(Kind kind, CarCriteria criteria) {
+            this.kind = kind;
+            this.criteria = criteria;
+        }
+
+        CarCriteria getCriteria() {
+            return criteria;
+        }
+
+        boolean isModifiedBy(CarChangeEvent.Change change) {
+            if (kind == Kind.FACETS) {
+                return (change.getBefore() != null && CarCriteriaMatcher.mayMatch(criteria, change.getBefore())) ||
+                    (change.getAfter() != null && CarCriteriaMatcher.mayMatch(criteria, change.getAfter()));
+            }
+            return CarCriteriaMatcher.membershipChanged(criteria, change.getBefore(), change.getAfter());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return kind == key.kind && criteria.equals(key.criteria);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, criteria);
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + criteria;
+        }
+    }
+}
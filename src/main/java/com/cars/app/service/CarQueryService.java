@@ -1,23 +1,44 @@
 package com.cars.app.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import javax.persistence.Tuple;
 import javax.persistence.criteria.JoinType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.github.jhipster.service.QueryService;
+import io.github.jhipster.service.filter.LongFilter;
 
+import com.cars.app.config.ApplicationProperties;
 import com.cars.app.domain.Car;
 import com.cars.app.domain.*; // for static metamodels
 import com.cars.app.repository.CarRepository;
 import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+import com.cars.app.service.dto.CarFacets;
 
 /**
  * Service for executing complex queries for {@link Car} entities in the database.
@@ -29,24 +50,87 @@ import com.cars.app.service.dto.CarCriteria;
 @Transactional(readOnly = true)
 public class CarQueryService extends QueryService<Car> {
 
+    private static final Sort KEYSET_SORT = Sort.by(Car_.PRICE, Car_.ID);
+
+    /**
+     * Names of the attributes which can be selected by {@link #findByCriteria(CarCriteria, List)}.
+     */
+    public static final Set<String> PROJECTABLE_FIELDS =
+        Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(Car_.ID, Car_.MAKE, Car_.MODEL, Car_.PRICE, Car_.VERSION)));
+
     private final Logger log = LoggerFactory.getLogger(CarQueryService.class);
 
     private final CarRepository carRepository;
 
-    public CarQueryService(CarRepository carRepository) {
+    private final ApplicationProperties applicationProperties;
+
+    private final CarQueryCache carQueryCache;
+
+    private final CarCountStore carCountStore;
+
+    private final CarColumnStore carColumnStore;
+
+    private final CarTextIndex carTextIndex;
+
+    public CarQueryService(CarRepository carRepository, ApplicationProperties applicationProperties, CarQueryCache carQueryCache,
+                           CarCountStore carCountStore, CarColumnStore carColumnStore, CarTextIndex carTextIndex) {
         this.carRepository = carRepository;
+        this.applicationProperties = applicationProperties;
+        this.carQueryCache = carQueryCache;
+        this.carCountStore = carCountStore;
+        this.carColumnStore = carColumnStore;
+        this.carTextIndex = carTextIndex;
     }
 
     /**
      * Return a {@link List} of {@link Car} which matches the criteria from the database.
+     * Answered by {@link CarColumnStore} when it is enabled, otherwise the ids of the result are cached by {@link CarQueryCache}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
     public List<Car> findByCriteria(CarCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
+        if (carColumnStore.isAvailable()) {
+            return carColumnStore.findByCriteria(criteria);
+        }
         final Specification<Car> specification = createSpecification(criteria);
-        return carRepository.findAll(specification);
+        return carQueryCache.findByCriteria(criteria, () -> carRepository.findAll(specification));
+    }
+
+    /**
+     * Return the given fields of the {@link Car} which match the criteria from the database.
+     * Only these columns are selected, as a tuple, so no entity is hydrated, tracked or cached.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the fields to return, among {@link #PROJECTABLE_FIELDS}.
+     * @return the fields of the matching entities, by name in the requested order.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByCriteria(CarCriteria criteria, List<String> fields) {
+        log.debug("find by criteria : {}, fields: {}", criteria, fields);
+        if (!PROJECTABLE_FIELDS.containsAll(fields)) {
+            throw new IllegalArgumentException("Unknown fields " + fields);
+        }
+        final Specification<Car> specification = createSpecification(criteria);
+        return carRepository.findAll(specification, fields).stream()
+            .map(tuple -> toMap(tuple, fields))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Return the given fields of the "id" {@link Car}.
+     * @param id The id of the entity.
+     * @param fields The names of the fields to return, among {@link #PROJECTABLE_FIELDS}.
+     * @return the fields of the entity, by name in the requested order.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findOne(Long id, List<String> fields) {
+        log.debug("find one : {}, fields: {}", id, fields);
+        CarCriteria criteria = new CarCriteria();
+        LongFilter idFilter = new LongFilter();
+        idFilter.setEquals(id);
+        criteria.setId(idFilter);
+        return findByCriteria(criteria, fields).stream().findFirst();
     }
 
     /**
@@ -62,20 +146,181 @@ public class CarQueryService extends QueryService<Car> {
         return carRepository.findAll(specification, page);
     }
 
+    /**
+     * Return the {@link Car} which match the criteria and come after the cursor, ordered by price then id.
+     * The position is applied as a {@code (price, id) > (?, ?)} predicate instead of an OFFSET and no count
+     * query is issued, so fetching a deep page costs the same as fetching the first one.
+     * Answered by {@link CarColumnStore} when it is enabled.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the last entity of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<Car> findByCriteria(CarCriteria criteria, CarCursor cursor, int limit) {
+        log.debug("find by criteria : {}, cursor: {}, limit: {}", criteria, cursor, limit);
+        if (carColumnStore.isAvailable()) {
+            return carColumnStore.findByCriteria(criteria, cursor, limit);
+        }
+        final Specification<Car> specification = createSpecification(criteria).and(createSeekSpecification(cursor));
+        return carRepository.findAll(specification, KEYSET_SORT, limit);
+    }
+
+    /**
+     * Same as {@link #findByCriteria(CarCriteria, CarCursor, int)}, selecting only the given fields as
+     * {@link #findByCriteria(CarCriteria, List)} does.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the fields to return, among {@link #PROJECTABLE_FIELDS}.
+     * @param cursor The position of the last entity of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of entities to return.
+     * @return the fields of the matching entities, by name in the requested order, followed by the price and the id
+     * when they are not requested, as they position the next page.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findByCriteria(CarCriteria criteria, List<String> fields, CarCursor cursor, int limit) {
+        log.debug("find by criteria : {}, fields: {}, cursor: {}, limit: {}", criteria, fields, cursor, limit);
+        if (!PROJECTABLE_FIELDS.containsAll(fields)) {
+            throw new IllegalArgumentException("Unknown fields " + fields);
+        }
+        List<String> attributes = new ArrayList<>(fields);
+        for (String keysetField : Arrays.asList(Car_.PRICE, Car_.ID)) {
+            if (!attributes.contains(keysetField)) {
+                attributes.add(keysetField);
+            }
+        }
+        final Specification<Car> specification = createSpecification(criteria).and(createSeekSpecification(cursor));
+        return carRepository.findAll(specification, attributes, KEYSET_SORT, limit).stream()
+            .map(tuple -> toMap(tuple, attributes))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Hand each {@link Car} which matches the criteria to the action, ordered by id, without ever holding
+     * the whole result in memory: rows are scrolled with the configured JDBC fetch size and are not attached
+     * to the persistence context.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param action The action to perform on each matching entity.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(CarCriteria criteria, Consumer<Car> action) {
+        log.debug("stream by criteria : {}", criteria);
+        final Specification<Car> specification = createSpecification(criteria);
+        carRepository.scroll(specification, applicationProperties.getExport().getFetchSize(), action);
+    }
+
+    /**
+     * Return the current state of at most {@code limit} entities which match the criteria, with an id greater than
+     * {@code afterId}, ordered by id, locking their rows until the end of the current read-write transaction, so that
+     * they can be updated with a set-based statement, chunk by chunk. Never answered by the caches or the in-memory stores.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id of the last entity of the previous chunk, or {@code null} for the first chunk.
+     * @param limit The maximum number of entities to return.
+     * @return detached copies of the matching entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Car> findByCriteriaForUpdate(CarCriteria criteria, Long afterId, int limit) {
+        log.debug("find by criteria for update : {}, after id: {}, limit: {}", criteria, afterId, limit);
+        Specification<Car> specification = createSpecification(criteria);
+        if (afterId != null) {
+            specification = specification.and((root, query, builder) -> builder.greaterThan(root.get(Car_.id), afterId));
+        }
+        return carRepository.findAllForUpdate(specification, limit);
+    }
+
     /**
      * Return the number of matching entities in the database.
+     * Answered by {@link CarColumnStore} when it is enabled, otherwise equality and price bucket counts are answered
+     * by {@link CarCountStore} and other results are cached by {@link CarQueryCache}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(CarCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
+        if (carColumnStore.isAvailable()) {
+            return carColumnStore.countByCriteria(criteria);
+        }
+        OptionalLong count = carCountStore.count(criteria);
+        if (count.isPresent()) {
+            return count.getAsLong();
+        }
+        final Specification<Car> specification = createSpecification(criteria);
+        return carQueryCache.countByCriteria(criteria, () -> carRepository.count(specification));
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, tuple.get(field));
+        }
+        return values;
+    }
+
+    /**
+     * Return the facets of the matching entities: counts per make and model, a price histogram
+     * and price statistics, computed with a single grouped query and cached by {@link CarQueryCache}.
+     * The price buckets have the width of the {@link CarCountStore} ones.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the facets of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public CarFacets findFacets(CarCriteria criteria) {
+        log.debug("find facets by criteria : {}", criteria);
         final Specification<Car> specification = createSpecification(criteria);
-        return carRepository.count(specification);
+        final double width = applicationProperties.getCounters().getPriceBucketWidth();
+        return carQueryCache.facetsByCriteria(criteria, () -> toFacets(carRepository.findFacets(specification, width), width));
+    }
+
+    private CarFacets toFacets(List<Tuple> groups, double width) {
+        // With a case insensitive collation, groups of the same make may come with different cases
+        Comparator<String> order = applicationProperties.getDatabase().isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : null;
+        Map<String, Long> makes = new TreeMap<>(order);
+        Map<String, Long> models = new TreeMap<>(order);
+        Map<Long, Long> buckets = new TreeMap<>();
+        long count = 0;
+        long priceCount = 0;
+        double priceSum = 0;
+        Double minPrice = null;
+        Double maxPrice = null;
+        for (Tuple group : groups) {
+            long groupCount = group.get("count", Long.class);
+            count += groupCount;
+            String make = group.get("make", String.class);
+            if (make != null) {
+                makes.merge(make, groupCount, Long::sum);
+            }
+            String model = group.get("model", String.class);
+            if (model != null) {
+                models.merge(model, groupCount, Long::sum);
+            }
+            long groupPriceCount = group.get("priceCount", Long.class);
+            if (groupPriceCount > 0) {
+                buckets.merge(((Number) group.get("bucket")).longValue(), groupPriceCount, Long::sum);
+                priceCount += groupPriceCount;
+                priceSum += ((Number) group.get("sumPrice")).doubleValue();
+                double groupMin = ((Number) group.get("minPrice")).doubleValue();
+                double groupMax = ((Number) group.get("maxPrice")).doubleValue();
+                minPrice = minPrice == null ? groupMin : Math.min(minPrice, groupMin);
+                maxPrice = maxPrice == null ? groupMax : Math.max(maxPrice, groupMax);
+            }
+        }
+        CarFacets facets = new CarFacets();
+        facets.setCount(count);
+        facets.setMakes(makes);
+        facets.setModels(models);
+        facets.setPrices(buckets.entrySet().stream()
+            .map(bucket -> new CarFacets.PriceBucket(bucket.getKey() * width, (bucket.getKey() + 1) * width, bucket.getValue()))
+            .collect(Collectors.toList()));
+        facets.setMinPrice(minPrice);
+        facets.setMaxPrice(maxPrice);
+        facets.setAveragePrice(priceCount == 0 ? null : priceSum / priceCount);
+        return facets;
     }
 
     /**
      * Function to convert {@link CarCriteria} to a {@link Specification}
+     * When {@link CarTextIndex} resolves the {@code contains} filters to a few candidate ids, these are added as an
+     * {@code id in (...)} predicate, so that the {@code like} filters are only checked on the candidates.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the matching {@link Specification} of the entity.
      */
@@ -94,7 +339,45 @@ public class CarQueryService extends QueryService<Car> {
             if (criteria.getPrice() != null) {
                 specification = specification.and(buildRangeSpecification(criteria.getPrice(), Car_.price));
             }
+            Optional<Set<Long>> candidates = carTextIndex.candidates(criteria);
+            if (candidates.isPresent()) {
+                specification = specification.and(createCandidatesSpecification(candidates.get()));
+            }
         }
         return specification;
     }
+
+    /**
+     * Function to convert candidate ids to a {@link Specification} matching only these entities.
+     * @param ids The ids of the candidate entities.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Car> createCandidatesSpecification(Set<Long> ids) {
+        return (root, query, builder) -> ids.isEmpty() ? builder.disjunction() : root.get(Car_.id).in(new TreeSet<>(ids));
+    }
+
+    /**
+     * Function to convert a {@link CarCursor} to a {@link Specification} matching the entities after it,
+     * with the {@code (price, id)} ordering used by {@link #findByCriteria(CarCriteria, CarCursor, int)}.
+     * Cars without a price sort first, as both MySQL and H2 put {@code NULL} first in ascending order.
+     * The redundant {@code price >= ?} bound lets the database seek in the price index instead of scanning it
+     * from the start, as it does not use an index range for a disjunction.
+     * @param cursor The position of the last entity of the previous page, may be {@code null}.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Car> createSeekSpecification(CarCursor cursor) {
+        if (cursor == null) {
+            return Specification.where(null);
+        }
+        if (cursor.getPrice() == null) {
+            return (root, query, builder) -> builder.or(
+                builder.and(builder.isNull(root.get(Car_.price)), builder.greaterThan(root.get(Car_.id), cursor.getId())),
+                builder.isNotNull(root.get(Car_.price)));
+        }
+        return (root, query, builder) -> builder.and(
+            builder.greaterThanOrEqualTo(root.get(Car_.price), cursor.getPrice()),
+            builder.or(
+                builder.greaterThan(root.get(Car_.price), cursor.getPrice()),
+                builder.and(builder.equal(root.get(Car_.price), cursor.getPrice()), builder.greaterThan(root.get(Car_.id), cursor.getId()))));
+    }
 }
@@ -1,6 +1,9 @@
 package com.cars.app.service;
 
 import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarBulkResult;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarPriceAdjustment;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,14 +13,70 @@ import java.util.Optional;
  */
 public interface CarService {
 
+    /**
+     * Cache of {@link #findOne(Long)}, kept up to date by {@link CarCache}.
+     */
+    String CARS_BY_ID_CACHE = "carsById";
+
     /**
      * Save a car.
+     * <p>
+     * When updating a car with a version, the update fails with an
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} if the car has another version.
      *
      * @param car the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version.
      */
     Car save(Car car);
 
+    /**
+     * Partially update a car: only the attributes which are not {@code null} are changed, and only the changed
+     * columns are updated.
+     * <p>
+     * With a version, the update fails with an {@link org.springframework.orm.ObjectOptimisticLockingFailureException}
+     * if the car has another version.
+     *
+     * @param car the changes to apply, with the ID of the entity.
+     * @return the updated entity, with its new version, or empty if it does not exist.
+     */
+    Optional<Car> partialUpdate(Car car);
+
+    /**
+     * Adjust the price of all the cars matching the criteria, with set-based updates instead of one update per car.
+     * <p>
+     * As for {@link #deleteAll(CarCriteria)}, cars are locked and updated in chunks ordered by id, each in its own
+     * transaction unless one is already active, and when a chunk fails, the previous chunks stay updated. Only the
+     * entries of the updated cars are invalidated in the second-level cache. Cars without a price are left unchanged.
+     *
+     * @param criteria the criteria which the entities to update should match.
+     * @param adjustment the adjustment of the price, which must be {@link CarPriceAdjustment#isValid() valid}.
+     * @return the number of updated entities.
+     */
+    int adjustPrices(CarCriteria criteria, CarPriceAdjustment adjustment);
+
+    /**
+     * Create a list of cars.
+     * <p>
+     * Cars are written in chunks, each in its own transaction unless one is already active,
+     * so that inserts are sent to the database as JDBC batches.
+     *
+     * @param cars the entities to create, which must not have an ID.
+     * @return the result for each entity, in the same order.
+     */
+    List<CarBulkResult> createAll(List<Car> cars);
+
+    /**
+     * Update a list of existing cars.
+     * <p>
+     * Cars are written in chunks, each in its own transaction unless one is already active,
+     * so that updates are sent to the database as JDBC batches. Cars with a version which is not the current
+     * one are reported as {@link CarBulkResult.Status#CONFLICT}.
+     *
+     * @param cars the entities to update, which must have an ID.
+     * @return the result for each entity, in the same order.
+     */
+    List<CarBulkResult> updateAll(List<Car> cars);
+
     /**
      * Get all the cars.
      *
@@ -25,9 +84,21 @@ public interface CarService {
      */
     List<Car> findAll();
 
+    /**
+     * Get the cars with the given ids, from the second-level cache when they are in it, and with a single
+     * query for the other ones.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities which exist, in the order of their ids.
+     */
+    List<Car> findAll(List<Long> ids);
+
 
     /**
      * Get the "id" car.
+     * <p>
+     * Cached, unless read inside a read-write transaction, which may have changed it. The cached car may be shared
+     * with the other readers, so it must not be modified.
      *
      * @param id the id of the entity.
      * @return the entity.
@@ -40,4 +111,16 @@ public interface CarService {
      * @param id the id of the entity.
      */
     void delete(Long id);
+
+    /**
+     * Delete all the cars matching the criteria, with set-based deletes instead of one delete per car.
+     * <p>
+     * Cars are locked and deleted in chunks ordered by id, each in its own transaction unless one is already active,
+     * so that rows are not locked for the whole purge. When a chunk fails, the previous chunks stay deleted.
+     * Only the entries of the deleted cars are invalidated in the second-level cache.
+     *
+     * @param criteria the criteria which the entities to delete should match.
+     * @return the number of deleted entities.
+     */
+    long deleteAll(CarCriteria criteria);
 }
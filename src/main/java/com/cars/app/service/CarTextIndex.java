@@ -0,0 +1,235 @@
+package com.cars.app.service;
+
+import com.cars.app.config.ApplicationProperties;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import io.github.jhipster.service.filter.StringFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory {@link CarTrigrams} indexes of the makes and models of all the cars, which resolve the {@code contains}
+ * filters of a {@link CarCriteria} to the ids of the cars which may match, so that {@link CarQueryService} can query
+ * them by primary key instead of scanning the whole table with {@code like '%text%'}.
+ * <p>
+ * As {@link CarColumnStore}, the indexes are loaded at startup then reloaded periodically, and kept up to date in
+ * between with the committed {@link CarChangeEvent}s of this member, and of the other members of the cluster through
+ * a Hazelcast topic. They are not used inside a read-write transaction, which may see uncommitted changes.
+ */
+@Service
+public class CarTextIndex {
+
+    public static final String TOPIC_NAME = "com.cars.app.service.CarTextIndex";
+
+    private final Logger log = LoggerFactory.getLogger(CarTextIndex.class);
+
+    private final CarRepository carRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final CarQueryCache carQueryCache;
+
+    private final ITopic<CarChangeEvent> topic;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * {@code null} until the first load is done.
+     */
+    private volatile Indexes indexes;
+
+    /**
+     * Changes received while a reload is running, to apply on the reloaded indexes. Guarded by {@link #lock}.
+     */
+    private List<CarChangeEvent> pendingChanges;
+
+    public CarTextIndex(CarRepository carRepository, ApplicationProperties applicationProperties, CarQueryCache carQueryCache,
+                        HazelcastInstance hazelcastInstance) {
+        this.carRepository = carRepository;
+        this.applicationProperties = applicationProperties;
+        this.carQueryCache = carQueryCache;
+        this.topic = hazelcastInstance.getTopic(TOPIC_NAME);
+        if (applicationProperties.getTextIndex().isEnabled()) {
+            topic.addMessageListener(message -> {
+                if (!message.getPublishingMember().localMember()) {
+                    apply(message.getMessageObject());
+                    // A query run on this member since the change was committed may have cached a result of the outdated index
+                    carQueryCache.evict(message.getMessageObject());
+                }
+            });
+        }
+    }
+
+    /**
+     * Resolve the {@code contains} filters of the make and the model of the criteria to candidate ids.
+     * <p>
+     * The other filters are not evaluated, and the {@code contains} filters must still be applied to the candidates,
+     * which only narrow down the cars to check.
+     *
+     * @param criteria the criteria which the cars should match.
+     * @return the ids of all the cars which may match the criteria, or empty if the indexes cannot be used
+     * (no {@code contains} filter of at least 3 characters, not loaded, read-write transaction) or if each filter
+     * has more candidates than {@code application.text-index.max-candidates}.
+     */
+    public Optional<Set<Long>> candidates(CarCriteria criteria) {
+        String makeText = indexedText(criteria.getMake());
+        String modelText = indexedText(criteria.getModel());
+        if ((makeText == null && modelText == null) || !isAvailable()) {
+            return Optional.empty();
+        }
+        int maxCandidates = applicationProperties.getTextIndex().getMaxCandidates();
+        Optional<Set<Long>> makeCandidates;
+        Optional<Set<Long>> modelCandidates;
+        lock.readLock().lock();
+        try {
+            makeCandidates = makeText != null ? indexes.makes.idsContaining(makeText, maxCandidates) : Optional.empty();
+            modelCandidates = modelText != null ? indexes.models.idsContaining(modelText, maxCandidates) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (makeCandidates.isPresent() && modelCandidates.isPresent()) {
+            makeCandidates.get().retainAll(modelCandidates.get());
+            return makeCandidates;
+        }
+        // As the filters are still applied, the candidates of one of them are enough
+        return makeCandidates.isPresent() ? makeCandidates : modelCandidates;
+    }
+
+    /**
+     * @return the text of a {@code contains} filter which the indexes can look up: as the filter is not escaped,
+     * a text with {@code like} wildcards or escape characters has another meaning in SQL.
+     */
+    private static String indexedText(StringFilter filter) {
+        if (filter == null || filter.getEquals() != null || filter.getIn() != null || filter.getNotIn() != null ||
+            filter.getContains() == null) {
+            return null;
+        }
+        String text = filter.getContains();
+        return text.indexOf('%') >= 0 || text.indexOf('_') >= 0 || text.indexOf('\\') >= 0 ? null : text;
+    }
+
+    private boolean isAvailable() {
+        return indexes != null &&
+            (!TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Apply a committed change of cars to the indexes, and send it to the other members.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Before CarQueryCache evicts the results, which may be computed again right away
+    public void onCarChange(CarChangeEvent event) {
+        if (!applicationProperties.getTextIndex().isEnabled()) {
+            return;
+        }
+        apply(event);
+        topic.publish(event);
+    }
+
+    private void apply(CarChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            if (indexes != null) {
+                indexes.apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load all the cars from the database, to replace the current indexes.
+     * <p>
+     * Changes applied during the load are replayed on the loaded indexes: as they hold the whole state of the
+     * changed cars, applying a change already seen by the load is harmless. Reloads do not overlap, as the
+     * scheduled one may run while another one is requested.
+     */
+    @Scheduled(fixedDelayString = "${application.text-index.reload-delay:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        if (!applicationProperties.getTextIndex().isEnabled()) {
+            return;
+        }
+        log.debug("Loading the car text index");
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Indexes loaded = new Indexes();
+        try {
+            carRepository.scroll(Specification.where(null), applicationProperties.getExport().getFetchSize(), loaded::add);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(loaded::apply);
+            pendingChanges = null;
+            indexes = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Loaded {} makes and {} models in the text index", loaded.makes.size(), loaded.models.size());
+    }
+
+    private static class Indexes {
+
+        private final CarTrigrams makes = new CarTrigrams();
+
+        private final CarTrigrams models = new CarTrigrams();
+
+        private void add(Car car) {
+            makes.add(car.getMake(), car.getId());
+            models.add(car.getModel(), car.getId());
+        }
+
+        private void remove(Car car) {
+            makes.remove(car.getMake(), car.getId());
+            models.remove(car.getModel(), car.getId());
+        }
+
+        private void apply(CarChangeEvent event) {
+            for (CarChangeEvent.Change change : event.getChanges()) {
+                if (change.getBefore() != null) {
+                    remove(change.getBefore());
+                }
+                if (change.getAfter() != null) {
+                    add(change.getAfter());
+                }
+            }
+        }
+    }
+}
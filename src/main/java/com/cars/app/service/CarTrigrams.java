@@ -0,0 +1,135 @@
+package com.cars.app.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Trigram index of the values of a string attribute of the cars, which finds the ids of the cars whose value
+ * contains a text, with the semantics of {@code upper(value) like upper('%' || text || '%')}.
+ * <p>
+ * The ids are grouped by distinct value, and each trigram of an upper cased value points to the values containing it.
+ * A text is looked up by intersecting the values of its trigrams, then checked against each remaining value. A text
+ * shorter than a trigram is not indexable, as it would have to be checked against every distinct value.
+ * <p>
+ * Not thread-safe: {@link CarTextIndex} guards it with a read-write lock.
+ */
+class CarTrigrams {
+
+    private static final int N = 3;
+
+    private final Map<String, Set<Long>> idsByValue = new HashMap<>();
+
+    private final Map<String, Set<String>> valuesByTrigram = new HashMap<>();
+
+    /**
+     * @param value the value of the car, ignored if {@code null}.
+     * @param id the id of the car.
+     */
+    void add(String value, long id) {
+        if (value == null) {
+            return;
+        }
+        Set<Long> ids = idsByValue.get(value);
+        if (ids == null) {
+            ids = new HashSet<>();
+            idsByValue.put(value, ids);
+            for (String trigram : trigrams(upper(value))) {
+                valuesByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(value);
+            }
+        }
+        ids.add(id);
+    }
+
+    /**
+     * @param value the value the car had, ignored if {@code null}.
+     * @param id the id of the car.
+     */
+    void remove(String value, long id) {
+        if (value == null) {
+            return;
+        }
+        Set<Long> ids = idsByValue.get(value);
+        if (ids == null || !ids.remove(id) || !ids.isEmpty()) {
+            return;
+        }
+        idsByValue.remove(value);
+        for (String trigram : trigrams(upper(value))) {
+            Set<String> values = valuesByTrigram.get(trigram);
+            values.remove(value);
+            if (values.isEmpty()) {
+                valuesByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * @param text the text to look for.
+     * @param maxIds the maximum number of ids to return.
+     * @return the ids of the cars whose value contains the text, ignoring case, or empty if the text is shorter than
+     * a trigram or if more than {@code maxIds} cars contain it.
+     */
+    Optional<Set<Long>> idsContaining(String text, int maxIds) {
+        String upperText = upper(text);
+        if (upperText.length() < N) {
+            return Optional.empty();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (String value : candidateValues(upperText)) {
+            if (upper(value).contains(upperText)) {
+                ids.addAll(idsByValue.get(value));
+                if (ids.size() > maxIds) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.of(ids);
+    }
+
+    private Collection<String> candidateValues(String upperText) {
+        List<Set<String>> postings = new ArrayList<>();
+        for (String trigram : trigrams(upperText)) {
+            Set<String> values = valuesByTrigram.get(trigram);
+            if (values == null) {
+                return Collections.emptySet();
+            }
+            postings.add(values);
+        }
+        // Intersect starting from the most selective trigram
+        postings.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        List<String> candidates = new ArrayList<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the number of distinct values.
+     */
+    int size() {
+        return idsByValue.size();
+    }
+
+    private static Set<String> trigrams(String upperValue) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + N <= upperValue.length(); i++) {
+            trigrams.add(upperValue.substring(i, i + N));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Same upper casing as {@link CarCriteriaMatcher}.
+     */
+    private static String upper(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+}
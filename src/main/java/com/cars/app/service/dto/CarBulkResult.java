@@ -0,0 +1,85 @@
+package com.cars.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Outcome of writing one {@link com.cars.app.domain.Car} of a bulk request.
+ */
+public class CarBulkResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED, UPDATED, INVALID, NOT_FOUND, CONFLICT, FAILED
+    }
+
+    private final int index;
+
+    private final Long id;
+
+    private final Status status;
+
+    private final String message;
+
+    public CarBulkResult(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static CarBulkResult of(int index, Long id, Status status) {
+        return new CarBulkResult(index, id, status, null);
+    }
+
+    /**
+     * Position of the car in the bulk request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CarBulkResult that = (CarBulkResult) o;
+        return index == that.index &&
+            Objects.equals(id, that.id) &&
+            status == that.status &&
+            Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, status, message);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarBulkResult{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            (message != null ? ", message='" + message + "'" : "") +
+            "}";
+    }
+}
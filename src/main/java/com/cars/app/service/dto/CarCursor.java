@@ -0,0 +1,98 @@
+package com.cars.app.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a keyset-paginated {@link com.cars.app.domain.Car} result, ordered by {@code (price, id)}.
+ * <p>
+ * Clients only ever see the opaque {@link #encode() encoded} form, so the layout may change without
+ * breaking them as long as {@link #decode(String)} understands it.
+ */
+public final class CarCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char SEPARATOR = ':';
+
+    private final Double price;
+
+    private final Long id;
+
+    public CarCursor(Double price, Long id) {
+        this.price = price;
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Price of the last returned car, {@code null} if that car had no price.
+     */
+    public Double getPrice() {
+        return price;
+    }
+
+    /**
+     * Id of the last returned car.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = (price == null ? "" : price.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the value is not a valid cursor.
+     */
+    public static CarCursor decode(String value) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + value, e);
+        }
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor: " + value);
+        }
+        try {
+            String price = raw.substring(0, separator);
+            return new CarCursor(price.isEmpty() ? null : Double.valueOf(price), Long.valueOf(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + value, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CarCursor that = (CarCursor) o;
+        return Objects.equals(price, that.price) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(price, id);
+    }
+
+    @Override
+    public String toString() {
+        return "CarCursor{" +
+            "price=" + price +
+            ", id=" + id +
+            "}";
+    }
+}
@@ -0,0 +1,195 @@
+package com.cars.app.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Aggregations of the {@link com.cars.app.domain.Car} entities matching a {@link CarCriteria}, for faceted search.
+ */
+public class CarFacets implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+
+    private Map<String, Long> makes;
+
+    private Map<String, Long> models;
+
+    private List<PriceBucket> prices = new ArrayList<>();
+
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    private Double averagePrice;
+
+    /**
+     * Number of matching cars.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Number of matching cars per make, for the cars with a make.
+     */
+    public Map<String, Long> getMakes() {
+        return makes;
+    }
+
+    public void setMakes(Map<String, Long> makes) {
+        this.makes = makes;
+    }
+
+    /**
+     * Number of matching cars per model, for the cars with a model.
+     */
+    public Map<String, Long> getModels() {
+        return models;
+    }
+
+    public void setModels(Map<String, Long> models) {
+        this.models = models;
+    }
+
+    /**
+     * Price histogram of the matching cars with a price, ordered by price, without the empty buckets.
+     */
+    public List<PriceBucket> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(List<PriceBucket> prices) {
+        this.prices = prices;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(Double averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CarFacets that = (CarFacets) o;
+        return count == that.count &&
+            Objects.equals(makes, that.makes) &&
+            Objects.equals(models, that.models) &&
+            Objects.equals(prices, that.prices) &&
+            Objects.equals(minPrice, that.minPrice) &&
+            Objects.equals(maxPrice, that.maxPrice) &&
+            Objects.equals(averagePrice, that.averagePrice);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, makes, models, prices, minPrice, maxPrice, averagePrice);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarFacets{" +
+            "count=" + count +
+            ", makes=" + makes +
+            ", models=" + models +
+            ", prices=" + prices +
+            ", minPrice=" + minPrice +
+            ", maxPrice=" + maxPrice +
+            ", averagePrice=" + averagePrice +
+            "}";
+    }
+
+    /**
+     * Number of cars with a price in {@code [from, to)}.
+     */
+    public static class PriceBucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double from;
+
+        private final double to;
+
+        private final long count;
+
+        public PriceBucket(double from, double to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public double getFrom() {
+            return from;
+        }
+
+        public double getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PriceBucket that = (PriceBucket) o;
+            return Double.compare(that.from, from) == 0 &&
+                Double.compare(that.to, to) == 0 &&
+                count == that.count;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(from, to, count);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "PriceBucket{" +
+                "from=" + from +
+                ", to=" + to +
+                ", count=" + count +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.cars.app.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Progress, then outcome, of an import of {@link com.cars.app.domain.Car} entities.
+ */
+public class CarImportResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long lines;
+
+    private long imported;
+
+    private long invalid;
+
+    private long failed;
+
+    private boolean done;
+
+    private List<LineError> errors = new ArrayList<>();
+
+    /**
+     * Number of lines read, without the header and the blank lines.
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    public void setLines(long lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Number of cars inserted.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * Number of lines which are not a valid car.
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+
+    /**
+     * Number of valid cars whose chunk could not be inserted.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Whether the import is over, or this is a progress report.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+
+    /**
+     * The first errors, in no particular order.
+     */
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<LineError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CarImportResult that = (CarImportResult) o;
+        return lines == that.lines &&
+            imported == that.imported &&
+            invalid == that.invalid &&
+            failed == that.failed &&
+            done == that.done &&
+            Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lines, imported, invalid, failed, done, errors);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarImportResult{" +
+            "lines=" + lines +
+            ", imported=" + imported +
+            ", invalid=" + invalid +
+            ", failed=" + failed +
+            ", done=" + done +
+            ", errors=" + errors +
+            "}";
+    }
+
+    /**
+     * Error of a line of the imported file, numbered from 1.
+     */
+    public static class LineError implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long line;
+
+        private final String message;
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LineError that = (LineError) o;
+            return line == that.line &&
+                Objects.equals(message, that.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(line, message);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "LineError{" +
+                "line=" + line +
+                ", message='" + message + "'" +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cars.app.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Change of the price of the {@link com.cars.app.domain.Car} entities matching a {@link CarCriteria}: either a
+ * percentage of their current price, or an amount added to it. Cars without a price are left unchanged.
+ */
+public class CarPriceAdjustment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Double percentage;
+
+    private Double amount;
+
+    public CarPriceAdjustment() {
+    }
+
+    public CarPriceAdjustment(Double percentage, Double amount) {
+        this.percentage = percentage;
+        this.amount = amount;
+    }
+
+    /**
+     * Percentage of the current price to add, e.g. {@code -10} for a 10% discount.
+     */
+    public Double getPercentage() {
+        return percentage;
+    }
+
+    public void setPercentage(Double percentage) {
+        this.percentage = percentage;
+    }
+
+    /**
+     * Amount to add to the current price, e.g. {@code -500} for a 500 discount.
+     */
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * @return whether exactly one of the percentage and the amount is set, to a finite number.
+     */
+    @JsonIgnore
+    public boolean isValid() {
+        return (percentage == null) != (amount == null) &&
+            Double.isFinite(percentage != null ? percentage : amount);
+    }
+
+    /**
+     * @param price a current price.
+     * @return the adjusted price, computed as {@code price * factor + amount} like the SQL update, so that both
+     * give the same result.
+     */
+    public double apply(double price) {
+        return price * getFactor() + getAddend();
+    }
+
+    /**
+     * @return the factor of the current price.
+     */
+    @JsonIgnore
+    public double getFactor() {
+        return percentage == null ? 1D : 1D + percentage / 100D;
+    }
+
+    /**
+     * @return the amount added to the current price once multiplied by the {@link #getFactor() factor}.
+     */
+    @JsonIgnore
+    public double getAddend() {
+        return amount == null ? 0D : amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CarPriceAdjustment that = (CarPriceAdjustment) o;
+        return Objects.equals(percentage, that.percentage) &&
+            Objects.equals(amount, that.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(percentage, amount);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarPriceAdjustment{" +
+            "percentage=" + percentage +
+            ", amount=" + amount +
+            "}";
+    }
+}
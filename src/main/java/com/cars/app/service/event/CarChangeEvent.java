@@ -0,0 +1,110 @@
+package com.cars.app.service.event;
+
+import com.cars.app.domain.Car;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published by {@link com.cars.app.service.CarService} when cars are created, updated or deleted.
+ * <p>
+ * Listeners which maintain derived state (caches, counters, in-memory indexes...) should use
+ * {@code @TransactionalEventListener(fallbackExecution = true)}, so that they only see changes once they are committed.
+ */
+public class CarChangeEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Change> changes;
+
+    public CarChangeEvent(List<Change> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    public CarChangeEvent(Change change) {
+        this(Collections.singletonList(change));
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "CarChangeEvent{" +
+            "changes=" + changes +
+            "}";
+    }
+
+    /**
+     * The state of one car before and after a change, as detached copies.
+     */
+    public static class Change implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Car before;
+
+        private final Car after;
+
+        private Change(Car before, Car after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        public static Change created(Car car) {
+            return new Change(null, snapshot(car));
+        }
+
+        public static Change updated(Car before, Car after) {
+            return new Change(before, snapshot(after));
+        }
+
+        public static Change deleted(Car before) {
+            return new Change(before, null);
+        }
+
+        /**
+         * Detached copy of a car, to record its state before it is modified.
+         *
+         * @param car the car to copy.
+         * @return the copy.
+         */
+        public static Car snapshot(Car car) {
+            Car copy = new Car()
+                .make(car.getMake())
+                .model(car.getModel())
+                .price(car.getPrice());
+            copy.setId(car.getId());
+            copy.setVersion(car.getVersion());
+            return copy;
+        }
+
+        /**
+         * @return the state before the change, {@code null} if the car was created.
+         */
+        public Car getBefore() {
+            return before;
+        }
+
+        /**
+         * @return the state after the change, {@code null} if the car was deleted.
+         */
+        public Car getAfter() {
+            return after;
+        }
+
+        public Long getId() {
+            return after != null ? after.getId() : before.getId();
+        }
+
+        @Override
+        public String toString() {
+            return "Change{" +
+                "before=" + before +
+                ", after=" + after +
+                "}";
+        }
+    }
+}
@@ -1,16 +1,38 @@
 package com.cars.app.service.impl;
 
+import com.cars.app.config.ApplicationProperties;
+import com.cars.app.service.CarQueryService;
 import com.cars.app.service.CarService;
 import com.cars.app.domain.Car;
 import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarBulkResult;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarPriceAdjustment;
+import com.cars.app.service.event.CarChangeEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service Implementation for managing {@link Car}.
@@ -19,18 +41,218 @@ import java.util.Optional;
 @Transactional
 public class CarServiceImpl implements CarService {
 
+    /**
+     * Cars read inside a read-write transaction may have uncommitted changes, which must not be cached.
+     */
+    private static final String OUTSIDE_READ_WRITE_TRANSACTION =
+        "!T(org.springframework.transaction.support.TransactionSynchronizationManager).isActualTransactionActive()" +
+        " or T(org.springframework.transaction.support.TransactionSynchronizationManager).isCurrentTransactionReadOnly()";
+
     private final Logger log = LoggerFactory.getLogger(CarServiceImpl.class);
 
     private final CarRepository carRepository;
 
-    public CarServiceImpl(CarRepository carRepository) {
+    private final CarQueryService carQueryService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CarServiceImpl(CarRepository carRepository, CarQueryService carQueryService, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties,
+                          ApplicationEventPublisher eventPublisher) {
         this.carRepository = carRepository;
+        this.carQueryService = carQueryService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Car save(Car car) {
         log.debug("Request to save Car : {}", car);
-        return carRepository.save(car);
+        // Merging loads the current state anyway, so this does not cost an extra query
+        Car before = car.getId() == null ? null : carRepository.findById(car.getId()).map(CarChangeEvent.Change::snapshot).orElse(null);
+        if (before != null && car.getVersion() == null) {
+            // Without a version the car would be taken as new: an update without one overwrites the current state
+            car.setVersion(before.getVersion());
+        }
+        // Flushed now so that the version checked and incremented by Hibernate is in the result and the event
+        Car result = carRepository.saveAndFlush(car);
+        eventPublisher.publishEvent(new CarChangeEvent(before == null ? CarChangeEvent.Change.created(result) : CarChangeEvent.Change.updated(before, result)));
+        return result;
+    }
+
+    @Override
+    public Optional<Car> partialUpdate(Car car) {
+        log.debug("Request to partially update Car : {}", car);
+        return carRepository.findById(car.getId()).map(existing -> {
+            if (car.getVersion() != null && !car.getVersion().equals(existing.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Car.class, car.getId());
+            }
+            Car before = CarChangeEvent.Change.snapshot(existing);
+            if (car.getMake() != null) {
+                existing.setMake(car.getMake());
+            }
+            if (car.getModel() != null) {
+                existing.setModel(car.getModel());
+            }
+            if (car.getPrice() != null) {
+                existing.setPrice(car.getPrice());
+            }
+            // Flushed now so that the version incremented by Hibernate is in the result and the event
+            carRepository.flush();
+            eventPublisher.publishEvent(new CarChangeEvent(CarChangeEvent.Change.updated(before, existing)));
+            return existing;
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int adjustPrices(CarCriteria criteria, CarPriceAdjustment adjustment) {
+        log.debug("Request to adjust the price of Cars by criteria: {}, adjustment: {}", criteria, adjustment);
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        int updated = 0;
+        Long afterId = null;
+        List<Car> chunk;
+        do {
+            Long from = afterId;
+            chunk = transactionTemplate.execute(status -> {
+                List<Car> locked = carQueryService.findByCriteriaForUpdate(criteria, from, chunkSize);
+                List<Car> befores = locked.stream().filter(car -> car.getPrice() != null).collect(Collectors.toList());
+                carRepository.adjustPrices(befores, adjustment.getFactor(), adjustment.getAddend());
+                // The rows are locked, so their new state is known without reading them again
+                List<CarChangeEvent.Change> changes = new ArrayList<>(befores.size());
+                for (Car before : befores) {
+                    Car after = CarChangeEvent.Change.snapshot(before).price(adjustment.apply(before.getPrice()));
+                    after.setVersion(before.getVersion() + 1);
+                    changes.add(CarChangeEvent.Change.updated(before, after));
+                }
+                if (!changes.isEmpty()) {
+                    eventPublisher.publishEvent(new CarChangeEvent(changes));
+                }
+                return locked;
+            });
+            // The rows are locked, so all the cars with a price are updated
+            updated += (int) chunk.stream().filter(car -> car.getPrice() != null).count();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == chunkSize);
+        return updated;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CarBulkResult> createAll(List<Car> cars) {
+        log.debug("Request to create {} Cars", cars.size());
+        CarBulkResult[] results = new CarBulkResult[cars.size()];
+        List<Integer> valid = new ArrayList<>(cars.size());
+        for (int i = 0; i < cars.size(); i++) {
+            if (cars.get(i).getId() != null) {
+                results[i] = new CarBulkResult(i, cars.get(i).getId(), CarBulkResult.Status.INVALID, "A new car cannot already have an ID");
+            } else {
+                valid.add(i);
+            }
+        }
+        writeInChunks(cars, valid, results, chunk -> {
+            List<CarBulkResult> chunkResults = new ArrayList<>(chunk.size());
+            List<CarChangeEvent.Change> changes = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Car car = carRepository.save(cars.get(index));
+                chunkResults.add(CarBulkResult.of(index, car.getId(), CarBulkResult.Status.CREATED));
+                changes.add(CarChangeEvent.Change.created(car));
+            }
+            if (!changes.isEmpty()) {
+                eventPublisher.publishEvent(new CarChangeEvent(changes));
+            }
+            return chunkResults;
+        });
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CarBulkResult> updateAll(List<Car> cars) {
+        log.debug("Request to update {} Cars", cars.size());
+        CarBulkResult[] results = new CarBulkResult[cars.size()];
+        List<Integer> valid = new ArrayList<>(cars.size());
+        for (int i = 0; i < cars.size(); i++) {
+            if (cars.get(i).getId() == null) {
+                results[i] = new CarBulkResult(i, null, CarBulkResult.Status.INVALID, "Invalid id");
+            } else {
+                valid.add(i);
+            }
+        }
+        writeInChunks(cars, valid, results, chunk -> {
+            // Load the whole chunk with one query, updates are then flushed as batches by dirty checking
+            Map<Long, Car> existing = carRepository.findAllById(chunk.stream().map(index -> cars.get(index).getId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+            List<CarBulkResult> chunkResults = new ArrayList<>(chunk.size());
+            List<Car> befores = new ArrayList<>(chunk.size());
+            List<Car> updated = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Car car = cars.get(index);
+                Car managed = existing.get(car.getId());
+                if (managed == null) {
+                    chunkResults.add(new CarBulkResult(index, car.getId(), CarBulkResult.Status.NOT_FOUND, "Car not found"));
+                } else if (car.getVersion() != null && !car.getVersion().equals(managed.getVersion())) {
+                    chunkResults.add(new CarBulkResult(index, car.getId(), CarBulkResult.Status.CONFLICT, "Car modified concurrently"));
+                } else {
+                    befores.add(CarChangeEvent.Change.snapshot(managed));
+                    managed.make(car.getMake()).model(car.getModel()).price(car.getPrice());
+                    chunkResults.add(CarBulkResult.of(index, car.getId(), CarBulkResult.Status.UPDATED));
+                    updated.add(managed);
+                }
+            }
+            // Flushed before taking the snapshots, so that they have the incremented versions
+            carRepository.flush();
+            List<CarChangeEvent.Change> changes = new ArrayList<>(updated.size());
+            for (int i = 0; i < updated.size(); i++) {
+                changes.add(CarChangeEvent.Change.updated(befores.get(i), updated.get(i)));
+            }
+            if (!changes.isEmpty()) {
+                eventPublisher.publishEvent(new CarChangeEvent(changes));
+            }
+            return chunkResults;
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Write the cars at the given indexes chunk by chunk, each chunk in its own transaction (or in the current one),
+     * clearing the persistence context after each flush so that memory use does not grow with the number of cars.
+     * When a chunk fails, all its cars are reported as {@link CarBulkResult.Status#FAILED} and the next chunks are still written.
+     */
+    private void writeInChunks(List<Car> cars, List<Integer> indexes, CarBulkResult[] results,
+                               Function<List<Integer>, List<CarBulkResult>> chunkWriter) {
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            // Ids as requested, persisting a new car assigns one even if its chunk is then rolled back
+            Long[] requestedIds = chunk.stream().map(index -> cars.get(index).getId()).toArray(Long[]::new);
+            try {
+                List<CarBulkResult> chunkResults = transactionTemplate.execute(status -> {
+                    List<CarBulkResult> written = chunkWriter.apply(chunk);
+                    carRepository.flush();
+                    entityManager.clear();
+                    return written;
+                });
+                chunkResults.forEach(result -> results[result.getIndex()] = result);
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Failed to write a chunk of {} Cars: {}", chunk.size(), e.getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    int index = chunk.get(i);
+                    results[index] = new CarBulkResult(index, requestedIds[i], CarBulkResult.Status.FAILED, e.getMessage());
+                }
+            }
+        }
     }
 
     @Override
@@ -40,9 +262,21 @@ public class CarServiceImpl implements CarService {
         return carRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Car> findAll(List<Long> ids) {
+        log.debug("Request to get {} Cars by id", ids.size());
+        Map<Long, Car> found = carRepository.findAllByIdCacheFirst(ids);
+        return ids.stream()
+            .map(found::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CARS_BY_ID_CACHE, keyGenerator = "keyGenerator", condition = OUTSIDE_READ_WRITE_TRANSACTION, sync = true)
     public Optional<Car> findOne(Long id) {
         log.debug("Request to get Car : {}", id);
         return carRepository.findById(id);
@@ -51,6 +285,36 @@ public class CarServiceImpl implements CarService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Car : {}", id);
-        carRepository.deleteById(id);
+        Car car = carRepository.findById(id)
+            .orElseThrow(() -> new EmptyResultDataAccessException(String.format("No %s entity with id %s exists!", Car.class, id), 1));
+        carRepository.delete(car);
+        eventPublisher.publishEvent(new CarChangeEvent(CarChangeEvent.Change.deleted(CarChangeEvent.Change.snapshot(car))));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long deleteAll(CarCriteria criteria) {
+        log.debug("Request to delete Cars by criteria: {}", criteria);
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        long deleted = 0;
+        Long afterId = null;
+        List<Car> chunk;
+        do {
+            Long from = afterId;
+            chunk = transactionTemplate.execute(status -> {
+                List<Car> befores = carQueryService.findByCriteriaForUpdate(criteria, from, chunkSize);
+                carRepository.deleteAllLocked(befores);
+                if (!befores.isEmpty()) {
+                    eventPublisher.publishEvent(new CarChangeEvent(befores.stream().map(CarChangeEvent.Change::deleted).collect(Collectors.toList())));
+                }
+                return befores;
+            });
+            // The rows are locked, so all of them are deleted
+            deleted += chunk.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == chunkSize);
+        return deleted;
     }
 }
@@ -1,23 +1,48 @@
 package com.cars.app.web.rest;
 
 import com.cars.app.domain.Car;
+import com.cars.app.service.CarImportService;
 import com.cars.app.service.CarService;
+import com.cars.app.service.dto.CarBulkResult;
 import com.cars.app.web.rest.errors.BadRequestAlertException;
 import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+import com.cars.app.service.dto.CarFacets;
+import com.cars.app.service.dto.CarImportResult;
+import com.cars.app.service.dto.CarPriceAdjustment;
 import com.cars.app.service.CarQueryService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing {@link com.cars.app.domain.Car}.
@@ -30,6 +55,18 @@ public class CarResource {
 
     private static final String ENTITY_NAME = "carsappCar";
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final int MAX_BULK_SIZE = 10000;
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -37,9 +74,15 @@ public class CarResource {
 
     private final CarQueryService carQueryService;
 
-    public CarResource(CarService carService, CarQueryService carQueryService) {
+    private final CarImportService carImportService;
+
+    private final ObjectMapper objectMapper;
+
+    public CarResource(CarService carService, CarQueryService carQueryService, CarImportService carImportService, ObjectMapper objectMapper) {
         this.carService = carService;
         this.carQueryService = carQueryService;
+        this.carImportService = carImportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -58,41 +101,372 @@ public class CarResource {
         Car result = carService.save(car);
         return ResponseEntity.created(new URI("/api/cars/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(eTag(result))
             .body(result);
     }
 
     /**
      * {@code PUT  /cars} : Updates an existing car.
+     * <p>
+     * The update is only applied if the car still has the version given by the {@code If-Match} header
+     * (an ETag returned by a previous request) or else by the {@code version} of the body.
      *
      * @param car the car to update.
+     * @param ifMatch the ETag which the car must still have, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated car,
      * or with status {@code 400 (Bad Request)} if the car is not valid,
+     * or with status {@code 409 (Conflict)} if the car has been modified since the given version,
      * or with status {@code 500 (Internal Server Error)} if the car couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/cars")
-    public ResponseEntity<Car> updateCar(@RequestBody Car car) throws URISyntaxException {
+    public ResponseEntity<Car> updateCar(@RequestBody Car car,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws URISyntaxException {
         log.debug("REST request to update Car : {}", car);
         if (car.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            car.setVersion(parseETag(ifMatch));
+        }
         Car result = carService.save(car);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, car.getId().toString()))
+            .eTag(eTag(result))
             .body(result);
     }
 
+    /**
+     * {@code PATCH  /cars/:id} : Partially updates an existing car: only the fields of the body which are not {@code null}
+     * are changed.
+     * <p>
+     * As for {@code PUT}, the update is only applied if the car still has the version given by the {@code If-Match}
+     * header or else by the {@code version} of the body.
+     *
+     * @param id the id of the car to update.
+     * @param car the fields to update.
+     * @param ifMatch the ETag which the car must still have, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated car,
+     * or with status {@code 400 (Bad Request)} if the id of the body is not the one of the path,
+     * or with status {@code 404 (Not Found)} if the car does not exist,
+     * or with status {@code 409 (Conflict)} if the car has been modified since the given version.
+     */
+    @PatchMapping(value = "/cars/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MERGE_PATCH_JSON_VALUE})
+    public ResponseEntity<Car> partialUpdateCar(@PathVariable Long id, @RequestBody Car car,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("REST request to partially update Car : {}, {}", id, car);
+        if (car.getId() != null && !car.getId().equals(id)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idinvalid");
+        }
+        car.setId(id);
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            car.setVersion(parseETag(ifMatch));
+        }
+        Optional<Car> result = carService.partialUpdate(car);
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString());
+        result.ifPresent(updated -> headers.setETag(eTag(updated)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
+
+    /**
+     * {@code POST  /cars/price-adjustments} : Adjusts the price of all the cars matching the criteria,
+     * with set-based updates instead of one {@code PUT} per car.
+     *
+     * @param criteria the criteria which the entities to update should match.
+     * @param adjustment either the percentage of the price or the amount to add to it.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of updated cars in body,
+     * or with status {@code 400 (Bad Request)} if the adjustment does not have exactly one of the percentage and the amount.
+     */
+    @PostMapping("/cars/price-adjustments")
+    public ResponseEntity<Integer> adjustCarPrices(CarCriteria criteria, @RequestBody CarPriceAdjustment adjustment) {
+        log.debug("REST request to adjust the price of Cars by criteria: {}, adjustment: {}", criteria, adjustment);
+        if (!adjustment.isValid()) {
+            throw new BadRequestAlertException("Either a percentage or an amount is required", ENTITY_NAME, "invalidadjustment");
+        }
+        return ResponseEntity.ok().body(carService.adjustPrices(criteria, adjustment));
+    }
+
+    /**
+     * Strong ETag of a car: its version, as the URI identifies the car.
+     */
+    private static String eTag(Car car) {
+        return "\"" + car.getVersion() + "\"";
+    }
+
+    /**
+     * Strong ETag of a list of cars, which changes when a car is added, removed, reordered or updated.
+     */
+    private static String eTag(List<Car> cars) {
+        StringBuilder versions = new StringBuilder(cars.size() * 8);
+        for (Car car : cars) {
+            versions.append(car.getId()).append(':').append(car.getVersion()).append(',');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * @return the version of a strong ETag returned by {@link #eTag(Car)}.
+     * @throws ConcurrencyFailureException if the ETag cannot be the one of a version of the car, like a weak ETag.
+     */
+    private static Long parseETag(String eTag) {
+        String value = eTag.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.valueOf(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Does not match any version
+            }
+        }
+        throw new ConcurrencyFailureException("The ETag " + value + " does not match the car");
+    }
+
+    /**
+     * {@code POST  /cars/bulk} : Create a list of new cars.
+     *
+     * @param cars the cars to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result for each car, in the same order,
+     * or with status {@code 400 (Bad Request)} if there are too many cars.
+     */
+    @PostMapping("/cars/bulk")
+    public ResponseEntity<List<CarBulkResult>> createCars(@RequestBody List<Car> cars) {
+        log.debug("REST request to save {} Cars", cars.size());
+        checkBulkSize(cars);
+        return ResponseEntity.ok().body(carService.createAll(cars));
+    }
+
+    /**
+     * {@code PUT  /cars/bulk} : Updates a list of existing cars.
+     *
+     * @param cars the cars to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result for each car, in the same order,
+     * or with status {@code 400 (Bad Request)} if there are too many cars.
+     */
+    @PutMapping("/cars/bulk")
+    public ResponseEntity<List<CarBulkResult>> updateCars(@RequestBody List<Car> cars) {
+        log.debug("REST request to update {} Cars", cars.size());
+        checkBulkSize(cars);
+        return ResponseEntity.ok().body(carService.updateAll(cars));
+    }
+
+    /**
+     * {@code POST  /cars/_mget} : get the cars with the given ids.
+     * <p>
+     * The cars are read from the second-level cache with a single request, and the other ones from the
+     * database with a single query, instead of one {@code GET /cars/:id} per car.
+     *
+     * @param ids the ids of the cars to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the cars which exist, in the order of the ids,
+     * or with status {@code 400 (Bad Request)} if an id is null or if there are too many ids.
+     */
+    @PostMapping("/cars/_mget")
+    public ResponseEntity<List<Car>> getCars(@RequestBody List<Long> ids) {
+        log.debug("REST request to get {} Cars by id", ids.size());
+        checkBulkSize(ids);
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        return ResponseEntity.ok().body(carService.findAll(ids));
+    }
+
+    private void checkBulkSize(List<?> cars) {
+        if (cars.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("A bulk request cannot contain more than " + MAX_BULK_SIZE + " cars", ENTITY_NAME, "bulktoolarge");
+        }
+    }
+
     /**
      * {@code GET  /cars} : get all the cars.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header has the ETag of the list.
      */
     @GetMapping("/cars")
     public ResponseEntity<List<Car>> getAllCars(CarCriteria criteria) {
         log.debug("REST request to get Cars by criteria: {}", criteria);
         List<Car> entityList = carQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+        // Compared with If-None-Match by Spring MVC before the list is serialized
+        return ResponseEntity.ok().eTag(eTag(entityList)).body(entityList);
+    }
+
+    /**
+     * {@code GET  /cars?fields=:fields} : get only some fields of all the cars.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the comma separated names of the fields to return, among {@code id}, {@code make}, {@code model}, {@code price} and {@code version}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of the fields of the cars in body,
+     * or with status {@code 400 (Bad Request)} if a field is not known.
+     */
+    @GetMapping(value = "/cars", params = {"fields", "!limit"})
+    public ResponseEntity<List<Map<String, Object>>> getAllCarsFields(CarCriteria criteria, @RequestParam List<String> fields) {
+        log.debug("REST request to get fields {} of Cars by criteria: {}", fields, criteria);
+        return ResponseEntity.ok().body(carQueryService.findByCriteria(criteria, checkFields(fields)));
+    }
+
+    private List<String> checkFields(List<String> fields) {
+        List<String> distinct = fields.stream().map(String::trim).distinct().collect(Collectors.toList());
+        if (distinct.isEmpty() || !CarQueryService.PROJECTABLE_FIELDS.containsAll(distinct)) {
+            throw new BadRequestAlertException("The fields must be among " + CarQueryService.PROJECTABLE_FIELDS, ENTITY_NAME, "invalidfields");
+        }
+        return distinct;
+    }
+
+    /**
+     * {@code GET  /cars?limit=:limit&cursor=:cursor} : get the next page of cars, ordered by price then id.
+     * <p>
+     * The cursor of the next page, if any, is returned in the {@code X-Next-Cursor} header and in a
+     * {@code Link} header with {@code rel="next"}.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param limit the maximum number of cars to return.
+     * @param cursor the cursor returned with the previous page, absent for the first page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 400 (Bad Request)} if the limit or the cursor is not valid.
+     */
+    @GetMapping(value = "/cars", params = {"limit", "!fields"})
+    public ResponseEntity<List<Car>> getAllCarsAfter(CarCriteria criteria, @RequestParam int limit, @RequestParam(required = false) String cursor) {
+        log.debug("REST request to get a page of Cars by criteria: {}, cursor: {}, limit: {}", criteria, cursor, limit);
+        checkLimit(limit);
+        // Fetch one extra row to know whether there is a next page without counting
+        List<Car> entityList = carQueryService.findByCriteria(criteria, decodeCursor(cursor), limit + 1);
+        HttpHeaders headers = new HttpHeaders();
+        if (entityList.size() > limit) {
+            entityList = entityList.subList(0, limit);
+            Car last = entityList.get(limit - 1);
+            addNextPage(headers, new CarCursor(last.getPrice(), last.getId()));
+        }
+        return ResponseEntity.ok().headers(headers).body(entityList);
+    }
+
+    /**
+     * {@code GET  /cars?fields=:fields&limit=:limit&cursor=:cursor} : get only some fields of the next page of cars,
+     * ordered by price then id, with the headers of {@link #getAllCarsAfter(CarCriteria, int, String)}.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the comma separated names of the fields to return, among {@code id}, {@code make}, {@code model}, {@code price} and {@code version}.
+     * @param limit the maximum number of cars to return.
+     * @param cursor the cursor returned with the previous page, absent for the first page.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of the fields of the cars in body,
+     * or with status {@code 400 (Bad Request)} if a field is not known, or if the limit or the cursor is not valid.
+     */
+    @GetMapping(value = "/cars", params = {"limit", "fields"})
+    public ResponseEntity<List<Map<String, Object>>> getAllCarsFieldsAfter(CarCriteria criteria, @RequestParam List<String> fields,
+                                                                           @RequestParam int limit, @RequestParam(required = false) String cursor) {
+        log.debug("REST request to get fields {} of a page of Cars by criteria: {}, cursor: {}, limit: {}", fields, criteria, cursor, limit);
+        List<String> selected = checkFields(fields);
+        checkLimit(limit);
+        List<Map<String, Object>> rows = carQueryService.findByCriteria(criteria, selected, decodeCursor(cursor), limit + 1);
+        HttpHeaders headers = new HttpHeaders();
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Map<String, Object> last = rows.get(limit - 1);
+            addNextPage(headers, new CarCursor((Double) last.get("price"), (Long) last.get("id")));
+        }
+        // The price and the id are selected for the cursor even if they are not requested
+        rows.forEach(row -> row.keySet().retainAll(selected));
+        return ResponseEntity.ok().headers(headers).body(rows);
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BadRequestAlertException("The limit must be between 1 and " + MAX_PAGE_LIMIT, ENTITY_NAME, "invalidlimit");
+        }
+    }
+
+    private CarCursor decodeCursor(String cursor) {
+        try {
+            return cursor == null ? null : CarCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "invalidcursor");
+        }
+    }
+
+    private void addNextPage(HttpHeaders headers, CarCursor cursor) {
+        String next = cursor.encode();
+        headers.add(NEXT_CURSOR_HEADER, next);
+        String link = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", next).toUriString();
+        headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+    }
+
+    /**
+     * {@code GET  /cars/export} : export all the cars, either as a JSON array or as newline-delimited JSON.
+     * <p>
+     * Each car is written to the response as soon as it is read from the database, so memory use does not
+     * depend on the number of exported cars.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param format {@code json} (the default) for a JSON array, or {@code ndjson} for one car per line.
+     * @param response the response the cars are written to.
+     * @throws IOException if the response could not be written.
+     */
+    @GetMapping("/cars/export")
+    public void exportCars(CarCriteria criteria, @RequestParam(defaultValue = "json") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Cars by criteria: {}, format: {}", criteria, format);
+        boolean ndjson = "ndjson".equals(format);
+        if (!ndjson && !"json".equals(format)) {
+            throw new BadRequestAlertException("Unknown export format " + format, ENTITY_NAME, "invalidformat");
+        }
+        response.setContentType(ndjson ? NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        ObjectWriter jsonWriter = objectMapper.writerFor(Car.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Without the space Jackson otherwise writes before each root value but the first
+        ObjectWriter writer = ndjson ? jsonWriter.with(new MinimalPrettyPrinter("")) : jsonWriter;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            carQueryService.streamByCriteria(criteria, car -> {
+                try {
+                    writer.writeValue(generator, car);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * {@code POST  /cars/import} : import the cars of a CSV or NDJSON upload, depending on its content type.
+     * <p>
+     * The upload is streamed through a bounded pipeline, so memory use does not depend on its size. The progress of
+     * the import is written to the response as newline-delimited JSON while it runs, the last line being its outcome,
+     * with {@code "done": true}. An upload is rejected with status {@code 409 (Conflict)} while another import runs.
+     *
+     * @param request the request with the upload, as {@code text/csv} with the layout of {@code fake-data/car.csv},
+     * or as {@code application/x-ndjson} with one car per line.
+     * @param response the response the progress is written to.
+     * @throws IOException if the upload could not be read or the response could not be written.
+     */
+    @PostMapping(value = "/cars/import", consumes = {TEXT_CSV_VALUE, NDJSON_VALUE})
+    public void importCars(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to import Cars from {}", request.getContentType());
+        CarImportService.Format format = MediaType.valueOf(NDJSON_VALUE).isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+            ? CarImportService.Format.NDJSON : CarImportService.Format.CSV;
+        ObjectWriter writer = objectMapper.writerFor(CarImportResult.class);
+        Consumer<CarImportResult> progressWriter = progress -> {
+            try {
+                // Only set once the upload is accepted, as an error is then rendered with the content type of the response
+                response.setContentType(NDJSON_VALUE);
+                OutputStream output = response.getOutputStream();
+                output.write(writer.writeValueAsBytes(progress));
+                output.write('\n');
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        CarImportResult result;
+        try {
+            result = carImportService.importCars(request.getInputStream(), format, progressWriter);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidimport");
+        }
+        progressWriter.accept(result);
     }
 
     /**
@@ -107,17 +481,51 @@ public class CarResource {
         return ResponseEntity.ok().body(carQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /cars/facets} : get the facets of the cars: counts per make and model, a price histogram
+     * and the minimum, maximum and average price.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facets in body.
+     */
+    @GetMapping("/cars/facets")
+    public ResponseEntity<CarFacets> getCarFacets(CarCriteria criteria) {
+        log.debug("REST request to get Car facets by criteria: {}", criteria);
+        return ResponseEntity.ok().body(carQueryService.findFacets(criteria));
+    }
+
     /**
      * {@code GET  /cars/:id} : get the "id" car.
      *
+     * <p>
+     * The car is usually found in the {@link CarService#CARS_BY_ID_CACHE} cache, so a {@code 304 (Not Modified)} response to a request
+     * with an up-to-date {@code If-None-Match} header does not need the database.
+     *
      * @param id the id of the car to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the car, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the car, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the {@code If-None-Match} header has the ETag of the car.
      */
     @GetMapping("/cars/{id}")
     public ResponseEntity<Car> getCar(@PathVariable Long id) {
         log.debug("REST request to get Car : {}", id);
         Optional<Car> car = carService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(car);
+        HttpHeaders headers = new HttpHeaders();
+        car.ifPresent(found -> headers.setETag(eTag(found)));
+        return ResponseUtil.wrapOrNotFound(car, headers);
+    }
+
+    /**
+     * {@code GET  /cars/:id?fields=:fields} : get only some fields of the "id" car.
+     *
+     * @param id the id of the car to retrieve.
+     * @param fields the comma separated names of the fields to return, among {@code id}, {@code make}, {@code model}, {@code price} and {@code version}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the fields of the car, or with status {@code 404 (Not Found)},
+     * or with status {@code 400 (Bad Request)} if a field is not known.
+     */
+    @GetMapping(value = "/cars/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getCarFields(@PathVariable Long id, @RequestParam List<String> fields) {
+        log.debug("REST request to get fields {} of Car : {}", fields, id);
+        return ResponseUtil.wrapOrNotFound(carQueryService.findOne(id, checkFields(fields)));
     }
 
     /**
@@ -132,4 +540,25 @@ public class CarResource {
         carService.delete(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString())).build();
     }
+
+    /**
+     * {@code DELETE  /cars} : delete all the cars matching the criteria.
+     * <p>
+     * Cars are deleted in chunks, so that rows are not locked for the whole request.
+     *
+     * @param criteria the criteria which the entities to delete should match, at least one filter being required.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of deleted cars in body,
+     * or with status {@code 400 (Bad Request)} if there is no filter.
+     */
+    @DeleteMapping("/cars")
+    public ResponseEntity<Long> deleteCars(CarCriteria criteria) {
+        log.debug("REST request to delete Cars by criteria: {}", criteria);
+        if (criteria.equals(new CarCriteria())) {
+            throw new BadRequestAlertException("At least one filter is required to delete cars", ENTITY_NAME, "criteriarequired");
+        }
+        long deleted = carService.deleteAll(criteria);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, Long.toString(deleted)))
+            .body(deleted);
+    }
 }
@@ -1,21 +1,27 @@
 package com.cars.app.web.rest;
 
 import com.cars.app.config.KafkaProperties;
+import com.cars.app.web.rest.errors.BadRequestAlertException;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -26,20 +32,106 @@ public class CarsappKafkaResource {
 
     private final Logger log = LoggerFactory.getLogger(CarsappKafkaResource.class);
 
+    private static final String ENTITY_NAME = "kafkaMessage";
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
     private final KafkaProperties kafkaProperties;
-    private KafkaProducer<String, String> producer;
+    private Producer<String, String> producer;
     private ExecutorService sseExecutorService = Executors.newCachedThreadPool();
 
+    @Autowired
     public CarsappKafkaResource(KafkaProperties kafkaProperties) {
+        this(kafkaProperties, new KafkaProducer<>(kafkaProperties.getProducerProps()));
+    }
+
+    CarsappKafkaResource(KafkaProperties kafkaProperties, Producer<String, String> producer) {
         this.kafkaProperties = kafkaProperties;
-        this.producer = new KafkaProducer<>(kafkaProperties.getProducerProps());
+        this.producer = producer;
+    }
+
+    @PreDestroy
+    public void close() {
+        // Sends the messages still waiting for their batch
+        producer.close();
     }
 
     @PostMapping("/publish/{topic}")
     public PublishResult publish(@PathVariable String topic, @RequestParam String message, @RequestParam(required = false) String key) throws ExecutionException, InterruptedException {
         log.debug("REST request to send to Kafka topic {} with key {} the message : {}", topic, key, message);
         RecordMetadata metadata = producer.send(new ProducerRecord<>(topic, key, message)).get();
-        return new PublishResult(metadata.topic(), metadata.partition(), metadata.offset(), Instant.ofEpochMilli(metadata.timestamp()));
+        return new PublishResult(metadata);
+    }
+
+    /**
+     * {@code POST  /publish/:topic/async} : send a message, without holding the request thread until the broker
+     * acknowledges it.
+     *
+     * @param topic the topic.
+     * @param message the message.
+     * @param key the key of the message, which selects its partition.
+     * @return the partition and the offset of the message, once acknowledged.
+     */
+    @PostMapping("/publish/{topic}/async")
+    public CompletableFuture<PublishResult> publishAsync(@PathVariable String topic, @RequestParam String message, @RequestParam(required = false) String key) {
+        log.debug("REST request to send asynchronously to Kafka topic {} with key {} the message : {}", topic, key, message);
+        return send(new ProducerRecord<>(topic, key, message));
+    }
+
+    /**
+     * {@code POST  /publish/:topic/batch} : send a list of messages, which the producer batches together.
+     * <p>
+     * The response fails if any message fails, while the other messages may have been published.
+     *
+     * @param topic the topic.
+     * @param messages the messages, with their optional keys.
+     * @return the partition and the offset of each message, in the same order, once all are acknowledged.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a message is missing, or if there are more than
+     * 10000 messages.
+     */
+    @PostMapping("/publish/{topic}/batch")
+    public CompletableFuture<List<PublishResult>> publishBatch(@PathVariable String topic, @RequestBody List<PublishMessage> messages) {
+        log.debug("REST request to send to Kafka topic {} {} messages", topic, messages.size());
+        if (messages.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException("A batch cannot contain more than " + MAX_BATCH_SIZE + " messages", ENTITY_NAME, "batchtoolarge");
+        }
+        if (messages.stream().anyMatch(message -> message == null || message.message == null)) {
+            throw new BadRequestAlertException("A message is missing", ENTITY_NAME, "messagenull");
+        }
+        List<CompletableFuture<PublishResult>> results = new ArrayList<>(messages.size());
+        for (PublishMessage message : messages) {
+            CompletableFuture<PublishResult> result = send(new ProducerRecord<>(topic, message.key, message.message));
+            results.add(result);
+            if (result.isCompletedExceptionally()) {
+                // Failed without being sent, as when the metadata of the topic is missing: the next ones would wait as long
+                break;
+            }
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).thenApply(acknowledged -> {
+            List<PublishResult> published = new ArrayList<>(results.size());
+            results.forEach(result -> published.add(result.join()));
+            return published;
+        });
+    }
+
+    /**
+     * @return the result, completed by the producer when the broker acknowledges the record, or fails.
+     */
+    private CompletableFuture<PublishResult> send(ProducerRecord<String, String> record) {
+        CompletableFuture<PublishResult> result = new CompletableFuture<>();
+        try {
+            producer.send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    result.completeExceptionally(exception);
+                } else {
+                    result.complete(new PublishResult(metadata));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Thrown before the record is handed to the producer, such as a closed producer or an unserializable record
+            result.completeExceptionally(e);
+        }
+        return result;
     }
 
     @GetMapping("/consume")
@@ -80,11 +172,24 @@ public class CarsappKafkaResource {
         public final long offset;
         public final Instant timestamp;
 
-        private PublishResult(String topic, int partition, long offset, Instant timestamp) {
-            this.topic = topic;
-            this.partition = partition;
-            this.offset = offset;
-            this.timestamp = timestamp;
+        private PublishResult(RecordMetadata metadata) {
+            this.topic = metadata.topic();
+            this.partition = metadata.partition();
+            this.offset = metadata.offset();
+            this.timestamp = Instant.ofEpochMilli(metadata.timestamp());
+        }
+    }
+
+    static class PublishMessage {
+        public String key;
+        public String message;
+
+        PublishMessage() {
+        }
+
+        PublishMessage(String key, String message) {
+            this.key = key;
+            this.message = message;
         }
     }
 }
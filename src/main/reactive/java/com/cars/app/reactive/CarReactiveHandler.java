@@ -0,0 +1,117 @@
+package com.cars.app.reactive;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+import com.cars.app.web.rest.CarResource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebExchangeDataBinder;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the read endpoints of {@link CarResource}, with the same criteria
+ * request parameters, such as {@code make.contains=BMW&price.greaterThan=10000}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class CarReactiveHandler {
+
+    private final CarReactiveRepository carReactiveRepository;
+
+    private final ConversionService conversionService;
+
+    public CarReactiveHandler(CarReactiveRepository carReactiveRepository, @Qualifier("webFluxConversionService") ConversionService conversionService) {
+        this.carReactiveRepository = carReactiveRepository;
+        this.conversionService = conversionService;
+    }
+
+    /**
+     * {@code GET  /api/cars?limit=:limit&cursor=:cursor} : get a page of the cars matching the criteria, ordered by
+     * price then id, as {@link CarResource} does for the same parameters.
+     * <p>
+     * Without a limit, the first {@link CarResource#MAX_PAGE_LIMIT} cars are returned. The cursor of the next page,
+     * if any, is returned in the {@code X-Next-Cursor} header and in a {@code Link} header with {@code rel="next"}.
+     */
+    public Mono<ServerResponse> getAllCars(ServerRequest request) {
+        int limit;
+        CarCursor cursor;
+        try {
+            limit = request.queryParam("limit").map(Integer::valueOf).orElse(CarResource.MAX_PAGE_LIMIT);
+        } catch (NumberFormatException e) {
+            return Mono.error(new ServerWebInputException("Invalid limit"));
+        }
+        if (limit < 1 || limit > CarResource.MAX_PAGE_LIMIT) {
+            return Mono.error(new ServerWebInputException("The limit must be between 1 and " + CarResource.MAX_PAGE_LIMIT));
+        }
+        try {
+            cursor = request.queryParam("cursor").map(CarCursor::decode).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ServerWebInputException("Invalid cursor"));
+        }
+        // Fetch one extra row to know whether there is a next page without counting
+        return bindCriteria(request)
+            .flatMap(criteria -> carReactiveRepository.findByCriteria(criteria, cursor, limit + 1).collectList())
+            .flatMap(cars -> {
+                ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+                if (cars.size() <= limit) {
+                    return response.bodyValue(cars);
+                }
+                Car last = cars.get(limit - 1);
+                String next = new CarCursor(last.getPrice(), last.getId()).encode();
+                String link = UriComponentsBuilder.fromUri(request.uri()).replaceQueryParam("cursor", next).toUriString();
+                return response
+                    .header(CarResource.NEXT_CURSOR_HEADER, next)
+                    .header(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"")
+                    .bodyValue(cars.subList(0, limit));
+            });
+    }
+
+    /**
+     * {@code GET  /api/cars/count} : count the cars matching the criteria.
+     */
+    public Mono<ServerResponse> countCars(ServerRequest request) {
+        return bindCriteria(request)
+            .flatMap(carReactiveRepository::countByCriteria)
+            .flatMap(count -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(count));
+    }
+
+    /**
+     * {@code GET  /api/cars/:id} : get the "id" car, or status {@code 404 (Not Found)}.
+     */
+    public Mono<ServerResponse> getCar(ServerRequest request) {
+        Long id;
+        try {
+            id = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return Mono.error(new ServerWebInputException("Invalid id"));
+        }
+        return carReactiveRepository.findById(id)
+            .flatMap(car -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag("\"" + car.getVersion() + "\"")
+                .bodyValue(car))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    /**
+     * Bind the query parameters to a {@link CarCriteria}, as Spring MVC does for the {@code CarResource}.
+     */
+    private Mono<CarCriteria> bindCriteria(ServerRequest request) {
+        CarCriteria criteria = new CarCriteria();
+        WebExchangeDataBinder binder = new WebExchangeDataBinder(criteria);
+        binder.setConversionService(conversionService);
+        return binder.bind(request.exchange()).then(Mono.defer(() -> binder.getBindingResult().hasErrors()
+            ? Mono.error(new ServerWebInputException("Invalid criteria: " + binder.getBindingResult().getFieldErrors()))
+            : Mono.just(criteria)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.cars.app.reactive;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.CarCriteriaSql;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking read-only queries of the {@code car} table, with the criteria semantics of
+ * {@link com.cars.app.service.CarQueryService} through {@link CarCriteriaSql}.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class CarReactiveRepository {
+
+    private static final String SELECT = "select id, make, model, price, version from car";
+
+    private final DatabaseClient databaseClient;
+
+    public CarReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * @param criteria the criteria which the cars should match.
+     * @param cursor the position of the last car of the previous page, {@code null} for the first page.
+     * @param limit the maximum number of cars to return.
+     * @return the matching cars after the cursor, ordered by price then id.
+     */
+    public Flux<Car> findByCriteria(CarCriteria criteria, CarCursor cursor, int limit) {
+        CarCriteriaSql sql = CarCriteriaSql.of(criteria).after(cursor);
+        return bind(databaseClient.execute(SELECT + sql.getWhereClause() + " order by price, id limit " + limit), sql.getParameters())
+            .map((row, metadata) -> toCar(row))
+            .all();
+    }
+
+    /**
+     * @param criteria the criteria which the cars should match.
+     * @return the number of matching cars.
+     */
+    public Mono<Long> countByCriteria(CarCriteria criteria) {
+        CarCriteriaSql sql = CarCriteriaSql.of(criteria);
+        return bind(databaseClient.execute("select count(*) from car" + sql.getWhereClause()), sql.getParameters())
+            .map((row, metadata) -> ((Number) row.get(0)).longValue())
+            .one();
+    }
+
+    /**
+     * @param id the id of the car.
+     * @return the car, or empty if there is none.
+     */
+    public Mono<Car> findById(Long id) {
+        return databaseClient.execute(SELECT + " where id = :id")
+            .bind("id", id)
+            .map((row, metadata) -> toCar(row))
+            .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> parameters) {
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec;
+    }
+
+    private static Car toCar(Row row) {
+        Car car = new Car()
+            .make(row.get("make", String.class))
+            .model(row.get("model", String.class))
+            .price(row.get("price", Double.class));
+        car.setId(row.get("id", Long.class));
+        car.setVersion(row.get("version", Long.class));
+        return car;
+    }
+}
@@ -0,0 +1,65 @@
+package com.cars.app.reactive;
+
+import io.github.jhipster.config.DefaultProfileUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.hazelcast.HazelcastAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Read-only reactive API of the cars, which serves {@code GET /api/cars}, {@code /api/cars/count} and
+ * {@code /api/cars/{id}} on Netty with non-blocking R2DBC queries, for the read-heavy clients which would otherwise
+ * hold a servlet thread and a JDBC connection while waiting on the database.
+ * <p>
+ * It runs next to {@link com.cars.app.CarsappApp}, which owns the schema and all the writes, on the same database:
+ * it has no JPA, no Liquibase, no Hazelcast and so no second-level cache, and only validates the JWT tokens issued by
+ * the main application. It is only built with the {@code reactive} Maven profile, and runs with the {@code reactive}
+ * Spring profile, see {@code application-reactive.yml}.
+ * <p>
+ * As its package is under the one of {@link com.cars.app.CarsappApp}, its classes are skipped when they are scanned
+ * by a servlet application.
+ */
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    LiquibaseAutoConfiguration.class,
+    HazelcastAutoConfiguration.class,
+    ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class CarsappReactiveApp {
+
+    public static final String SPRING_PROFILE_REACTIVE = "reactive";
+
+    private static final Logger log = LoggerFactory.getLogger(CarsappReactiveApp.class);
+
+    /**
+     * Main method, used to run the reactive application.
+     *
+     * @param args the command line arguments.
+     */
+    public static void main(String[] args) {
+        SpringApplication app = new SpringApplication(CarsappReactiveApp.class);
+        app.setWebApplicationType(WebApplicationType.REACTIVE);
+        app.setAdditionalProfiles(SPRING_PROFILE_REACTIVE);
+        DefaultProfileUtil.addDefaultProfile(app);
+        Environment env = app.run(args).getEnvironment();
+        log.info("\n----------------------------------------------------------\n\t" +
+                "Reactive application '{}' is running! Access URL: http://localhost:{}/api/cars\n\t" +
+                "Profile(s): \t{}\n----------------------------------------------------------",
+            env.getProperty("spring.application.name"),
+            env.getProperty("server.port"),
+            env.getActiveProfiles());
+    }
+}
@@ -0,0 +1,100 @@
+package com.cars.app.reactive;
+
+import com.cars.app.security.AuthoritiesConstants;
+import com.cars.app.security.jwt.TokenProvider;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Web server, database, security and routes of the {@link CarsappReactiveApp}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveConfiguration {
+
+    /**
+     * The servlet container of the dev and prod profiles is on the classpath too, so Netty is chosen explicitly.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * @param url an R2DBC URL, such as {@code r2dbc:pool:mysql://localhost:3306/carsapp}.
+     */
+    @Bean
+    public ConnectionFactory connectionFactory(@Value("${spring.r2dbc.url}") String url,
+                                               @Value("${spring.r2dbc.username:}") String username,
+                                               @Value("${spring.r2dbc.password:}") String password) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return ConnectionFactories.get(options.build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TokenProvider tokenProvider(JHipsterProperties jHipsterProperties) {
+        return new TokenProvider(jHipsterProperties);
+    }
+
+    /**
+     * Same rules as the servlet application for the car API: a valid JWT token is required, and there is no session.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenProvider tokenProvider) {
+        // @formatter:off
+        return http
+            .csrf().disable()
+            .httpBasic().disable()
+            .formLogin().disable()
+            .logout().disable()
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .addFilterAt(new JWTReactiveFilter(tokenProvider), SecurityWebFiltersOrder.AUTHENTICATION)
+            .authorizeExchange()
+            .pathMatchers("/api/**").authenticated()
+            .pathMatchers("/management/health").permitAll()
+            .pathMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
+            .anyExchange().denyAll()
+            .and()
+            .build();
+        // @formatter:on
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> carRoutes(CarReactiveHandler carReactiveHandler) {
+        return RouterFunctions.route()
+            .GET("/api/cars/count", carReactiveHandler::countCars)
+            .GET("/api/cars/{id}", carReactiveHandler::getCar)
+            .GET("/api/cars", carReactiveHandler::getAllCars)
+            .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.cars.app.config;
+
+import com.cars.app.CarsappApp;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link HazelcastMapMetrics}, on the Hazelcast instance of
+ * {@link com.cars.app.web.rest.CarResourceNearCacheIT}, which has the near cache enabled.
+ */
+@SpringBootTest(classes = CarsappApp.class, properties = {
+    "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=carsapp-near-cache",
+    "application.near-cache.enabled=true"
+})
+public class HazelcastMapMetricsIT {
+
+    /**
+     * Configured as the entity cache regions, with the near cache.
+     */
+    private static final String MAP_NAME = "com.cars.app.domain.HazelcastMapMetricsIT";
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HazelcastMapMetrics hazelcastMapMetrics;
+
+    private IMap<String, Integer> map;
+
+    @BeforeEach
+    public void initTest() {
+        map = hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        map.destroy();
+    }
+
+    @Test
+    public void bindMapCreatedAfterStartup() throws Exception {
+        map.put("a", 1);
+        map.get("a");
+        map.get("a");
+        map.get("b");
+
+        assertThat(meter("hazelcast.cache.puts")).isEqualTo(1);
+        assertThat(meter("hazelcast.cache.size")).isEqualTo(1);
+        // The second read of "a" is served by the near cache
+        assertThat(meter("hazelcast.cache.gets", "result", "hit")).isEqualTo(1);
+        assertThat(meter("hazelcast.cache.gets", "result", "miss")).isEqualTo(1);
+        assertThat(meter("hazelcast.cache.near.gets", "result", "hit")).isEqualTo(1);
+
+        map.evict("a");
+        assertThat(meter("hazelcast.cache.size")).isEqualTo(0);
+        // The events are delivered asynchronously
+        for (int i = 0; i < 100 && meter("hazelcast.cache.evictions") == 0; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(meter("hazelcast.cache.evictions")).isEqualTo(1);
+    }
+
+    @Test
+    public void summarizeMap() {
+        map.put("a", 1);
+        map.get("a");
+
+        Map<String, Number> metrics = hazelcastMapMetrics.summary().get(MAP_NAME);
+        assertThat(metrics).containsEntry("size", 1L)
+            .containsEntry("puts", 1L)
+            .containsEntry("hitRatio", 1D)
+            .containsEntry("nearCache.maxSize", 10000)
+            .containsEntry("nearCache.misses", 1L);
+    }
+
+    private double meter(String name, String... tags) {
+        return meterRegistry.get(name).tag("name", MAP_NAME).tags(tags).meter().measure().iterator().next().getValue();
+    }
+}
@@ -0,0 +1,109 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.config.ApplicationProperties;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link DiscoveryClientDiscoveryStrategy}, with local members started in any order.
+ */
+public class DiscoveryClientDiscoveryStrategyIT {
+
+    private static final String SERVICE_ID = "carsapp";
+
+    private final Registry registry = new Registry();
+
+    private final List<HazelcastInstance> instances = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        instances.forEach(HazelcastInstance::shutdown);
+    }
+
+    @Test
+    public void joinRegisteredMembers() {
+        registry.register(201);
+        HazelcastInstance first = start(201);
+        registry.register(202);
+        HazelcastInstance second = start(202);
+
+        assertThat(first.getCluster().getMembers()).hasSize(2);
+        assertThat(second.getCluster().getMembers()).hasSize(2);
+    }
+
+    @Test
+    public void mergeMembersRegisteredAfterStartup() throws Exception {
+        // Each member starts before the other is registered, as its own cluster
+        HazelcastInstance first = start(203);
+        HazelcastInstance second = start(204);
+        assertThat(first.getCluster().getMembers()).hasSize(1);
+        assertThat(second.getCluster().getMembers()).hasSize(1);
+        first.getMap("cars").put(1L, "first");
+        second.getMap("cars").put(2L, "second");
+
+        registry.register(203);
+        registry.register(204);
+        for (int i = 0; i < 600 && (first.getCluster().getMembers().size() < 2
+            || second.getCluster().getMembers().size() < 2 || first.getMap("cars").size() < 2); i++) {
+            Thread.sleep(100);
+        }
+
+        assertThat(first.getCluster().getMembers()).hasSize(2);
+        assertThat(second.getCluster().getMembers()).hasSize(2);
+        assertThat(first.getMap("cars").get(1L)).isEqualTo("first");
+        assertThat(first.getMap("cars").get(2L)).isEqualTo("second");
+    }
+
+    private HazelcastInstance start(int serverPort) {
+        Config config = new Config();
+        config.setInstanceName(getClass().getSimpleName() + "-" + serverPort);
+        config.setProperty("hazelcast.local.localAddress", "127.0.0.1");
+        config.getNetworkConfig().setPort(serverPort + 5701).setPortAutoIncrement(false);
+        ApplicationProperties.Cluster cluster = new ApplicationProperties.Cluster();
+        cluster.setMergeDelaySeconds(1);
+        // As in development, one port per instance
+        DiscoveryClientDiscoveryStrategy.configure(config, new DiscoveryClientDiscoveryStrategy.Factory(registry, SERVICE_ID,
+            instance -> "127.0.0.1:" + (instance.getPort() + 5701)), cluster);
+        HazelcastInstance instance = Hazelcast.newHazelcastInstance(config);
+        instances.add(instance);
+        return instance;
+    }
+
+    private static class Registry implements DiscoveryClient {
+
+        private final List<ServiceInstance> instances = new CopyOnWriteArrayList<>();
+
+        void register(int serverPort) {
+            instances.add(new DefaultServiceInstance(SERVICE_ID + ":" + serverPort, SERVICE_ID, "127.0.0.1", serverPort, false));
+        }
+
+        @Override
+        public String description() {
+            return "Test registry";
+        }
+
+        @Override
+        public List<ServiceInstance> getInstances(String serviceId) {
+            return SERVICE_ID.equals(serviceId) ? instances : Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getServices() {
+            return Collections.singletonList(SERVICE_ID);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.cars.app.config.hazelcast;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link EarlyRefreshCache}, on a local member.
+ */
+public class EarlyRefreshCacheIT {
+
+    private HazelcastInstance hazelcastInstance;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void start() {
+        Config config = new Config();
+        config.setInstanceName(getClass().getSimpleName());
+        config.getNetworkConfig().setPort(5910);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.addMapConfig(new MapConfig("expiring").setTimeToLiveSeconds(60));
+        config.addMapConfig(new MapConfig("eternal"));
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    public void loadMissingKeyOnce() throws Exception {
+        Cache cache = new EarlyRefreshCacheManager(hazelcastInstance, 1).getCache("expiring");
+        CountDownLatch loading = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loading.await(10, TimeUnit.SECONDS);
+            return "car";
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> readers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                readers.add(executor.submit(() -> cache.get(1L, loader)));
+            }
+            Thread.sleep(500);
+            loading.countDown();
+
+            for (Future<String> reader : readers) {
+                assertThat(reader.get(10, TimeUnit.SECONDS)).isEqualTo("car");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reloadBeforeExpiration() {
+        // Reloaded on the first hit, as if the load took longer than the time to live
+        Cache cache = new EarlyRefreshCacheManager(hazelcastInstance, 1_000_000).getCache("expiring");
+        Callable<String> loader = () -> {
+            Thread.sleep(5);
+            return "car " + loads.incrementAndGet();
+        };
+
+        assertThat(cache.get(1L, loader)).isEqualTo("car 1");
+        assertThat(cache.get(1L, loader)).isEqualTo("car 2");
+        assertThat(cache.get(1L, String.class)).isEqualTo("car 2");
+    }
+
+    @Test
+    public void keepValueUntilDue() {
+        Cache cache = new EarlyRefreshCacheManager(hazelcastInstance, 1).getCache("expiring");
+        Callable<String> loader = () -> "car " + loads.incrementAndGet();
+
+        assertThat(cache.get(1L, loader)).isEqualTo("car 1");
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.get(1L, loader)).isEqualTo("car 1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void keepEntriesWhichDoNotExpire() {
+        Cache cache = new EarlyRefreshCacheManager(hazelcastInstance, 1_000_000).getCache("eternal");
+        Callable<String> loader = () -> {
+            Thread.sleep(5);
+            return "car " + loads.incrementAndGet();
+        };
+
+        assertThat(cache.get(1L, loader)).isEqualTo("car 1");
+        assertThat(cache.get(1L, loader)).isEqualTo("car 1");
+    }
+
+    @Test
+    public void keepValueWhenReloadFails() {
+        Cache cache = new EarlyRefreshCacheManager(hazelcastInstance, 1_000_000).getCache("expiring");
+        assertThat(cache.get(1L, () -> {
+            Thread.sleep(5);
+            return "car";
+        })).isEqualTo("car");
+
+        Callable<String> failing = () -> {
+            throw new IllegalStateException("Database unavailable");
+        };
+        assertThat(cache.get(1L, failing)).isEqualTo("car");
+        assertThat(cache.get(1L, String.class)).isEqualTo("car");
+    }
+}
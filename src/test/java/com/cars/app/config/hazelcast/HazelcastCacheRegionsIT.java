@@ -0,0 +1,128 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.CarsappApp;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.AbstractDistributedObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link HazelcastCacheRegions}.
+ */
+@SpringBootTest(classes = CarsappApp.class)
+public class HazelcastCacheRegionsIT {
+
+    private static final String MAP_NAME = "com.cars.app.config.hazelcast.HazelcastCacheRegionsIT";
+
+    private static final String PROPERTY_SOURCE_NAME = "cacheRegions";
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private ContextRefresher contextRefresher;
+
+    private IMap<String, Integer> map;
+
+    @BeforeEach
+    public void initTest() {
+        map = hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        environment.getPropertySources().remove(PROPERTY_SOURCE_NAME);
+        contextRefresher.refresh();
+        map.destroy();
+    }
+
+    @Test
+    public void configureRegionsAtStartup() {
+        // See the application.cache.regions of the tests
+        MapConfig mapConfig = hazelcastInstance.getConfig().findMapConfig("com.cars.app.domain.Car");
+
+        assertThat(mapConfig.getMaxSizeConfig().getSize()).isEqualTo(100000);
+        assertThat(mapConfig.getMaxSizeConfig().getMaxSizePolicy()).isEqualTo(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        assertThat(mapConfig.getEvictionPolicy()).isEqualTo(EvictionPolicy.LFU);
+        assertThat(mapConfig.getMaxIdleSeconds()).isEqualTo(7200);
+        // Kept from the configuration of the entity regions
+        assertThat(mapConfig.getTimeToLiveSeconds()).isEqualTo(3600);
+    }
+
+    @Test
+    public void refreshRunningMap() throws Exception {
+        map.put("a", 1);
+        assertThat(mapContainerConfig().getMaxSizeConfig().getMaxSizePolicy())
+            .isEqualTo(MaxSizeConfig.MaxSizePolicy.USED_HEAP_SIZE);
+
+        String region = "application.cache.regions.[" + MAP_NAME + "].";
+        TestPropertyValues.of(
+            region + "max-entries=500",
+            region + "time-to-live-seconds=1",
+            region + "max-idle-seconds=60",
+            region + "backup-count=0")
+            .applyTo(environment, TestPropertyValues.Type.MAP, PROPERTY_SOURCE_NAME);
+        contextRefresher.refresh();
+
+        MapConfig mapConfig = mapContainerConfig();
+        assertThat(mapConfig.getMaxSizeConfig().getSize()).isEqualTo(500);
+        assertThat(mapConfig.getMaxSizeConfig().getMaxSizePolicy()).isEqualTo(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        assertThat(mapConfig.getEvictionPolicy()).isEqualTo(EvictionPolicy.LRU);
+        assertThat(mapConfig.getTimeToLiveSeconds()).isEqualTo(1);
+        assertThat(mapConfig.getMaxIdleSeconds()).isEqualTo(60);
+        // Only for the maps created later
+        assertThat(hazelcastInstance.getConfig().findMapConfig(MAP_NAME).getBackupCount()).isEqualTo(0);
+
+        map.put("b", 2);
+        for (int i = 0; i < 100 && map.containsKey("b"); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(map.containsKey("b")).isFalse();
+    }
+
+    @Test
+    public void keepRemovedRegion() {
+        // Not configured by the other tests, as the configuration of a map outlives it
+        IMap<String, Integer> removed = hazelcastInstance.getMap(MAP_NAME + ".removed");
+        try {
+            removed.put("a", 1);
+            TestPropertyValues.of("application.cache.regions.[" + removed.getName() + "].max-entries=500")
+                .applyTo(environment, TestPropertyValues.Type.MAP, PROPERTY_SOURCE_NAME);
+            contextRefresher.refresh();
+
+            environment.getPropertySources().remove(PROPERTY_SOURCE_NAME);
+            contextRefresher.refresh();
+
+            // Not reverted until the members restart
+            assertThat(mapContainerConfig(removed).getMaxSizeConfig().getSize()).isEqualTo(500);
+        } finally {
+            removed.destroy();
+        }
+    }
+
+    private MapConfig mapContainerConfig() {
+        return mapContainerConfig(map);
+    }
+
+    private static MapConfig mapContainerConfig(IMap<?, ?> map) {
+        MapService mapService = (MapService) ((AbstractDistributedObject<?>) map).getService();
+        return mapService.getMapServiceContext().getMapContainer(map.getName()).getMapConfig();
+    }
+}
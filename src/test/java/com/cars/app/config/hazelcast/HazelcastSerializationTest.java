@@ -0,0 +1,113 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.event.CarChangeEvent;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the serializers registered by {@link HazelcastSerialization}.
+ */
+public class HazelcastSerializationTest {
+
+    private InternalSerializationService serializationService;
+
+    private InternalSerializationService javaSerializationService;
+
+    private Car car;
+
+    @BeforeEach
+    public void init() {
+        SerializationConfig serializationConfig = new SerializationConfig();
+        HazelcastSerialization.configure(serializationConfig);
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(serializationConfig).build();
+        javaSerializationService = new DefaultSerializationServiceBuilder().build();
+        car = new Car().make("AAAAAAAAAA").model("BBBBBBBBBB").price(1D);
+        car.setId(1L);
+        car.setVersion(2L);
+    }
+
+    @Test
+    public void serializeCar() {
+        Car copy = roundTrip(car);
+        assertThat(copy).isEqualTo(car);
+        assertThat(copy.getMake()).isEqualTo("AAAAAAAAAA");
+        assertThat(copy.getModel()).isEqualTo("BBBBBBBBBB");
+        assertThat(copy.getPrice()).isEqualTo(1D);
+        assertThat(copy.getVersion()).isEqualTo(2L);
+        assertThat(size(serializationService, car)).isLessThan(size(javaSerializationService, car) / 4);
+
+        Car empty = roundTrip(new Car());
+        assertThat(empty.getId()).isNull();
+        assertThat(empty.getMake()).isNull();
+        assertThat(empty.getPrice()).isNull();
+        assertThat(empty.getVersion()).isNull();
+    }
+
+    @Test
+    public void serializeCarChangeEvent() {
+        Car before = CarChangeEvent.Change.snapshot(car);
+        before.setPrice(0D);
+        CarChangeEvent event = new CarChangeEvent(Arrays.asList(
+            CarChangeEvent.Change.created(car),
+            CarChangeEvent.Change.updated(before, car),
+            CarChangeEvent.Change.deleted(car)));
+
+        CarChangeEvent copy = roundTrip(event);
+        assertThat(copy.getChanges()).hasSize(3);
+        assertThat(copy.getChanges().get(0).getBefore()).isNull();
+        assertThat(copy.getChanges().get(0).getAfter().getVersion()).isEqualTo(2L);
+        assertThat(copy.getChanges().get(1).getBefore().getPrice()).isEqualTo(0D);
+        assertThat(copy.getChanges().get(1).getAfter().getPrice()).isEqualTo(1D);
+        assertThat(copy.getChanges().get(2).getAfter()).isNull();
+    }
+
+    @Test
+    public void serializeCacheItem() throws Exception {
+        AbstractReadWriteAccess.Item item = HibernateCacheValues.item(car, 3L);
+
+        AbstractReadWriteAccess.Item copy = roundTrip(item);
+        assertThat(copy.isReadable(4L)).isTrue();
+        assertThat(copy.isReadable(3L)).isFalse();
+        StandardCacheEntryImpl entry = (StandardCacheEntryImpl) copy.getValue();
+        assertThat(entry.getDisassembledState()).containsExactly("AAAAAAAAAA", "BBBBBBBBBB", 1D, 2L);
+        assertThat(entry.getSubclass()).isEqualTo(Car.class.getName());
+        assertThat(entry.getVersion()).isEqualTo(2L);
+        assertThat(size(serializationService, item)).isLessThan(size(javaSerializationService, item) / 4);
+    }
+
+    @Test
+    public void serializeCacheSoftLock() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        AbstractReadWriteAccess.SoftLockImpl lock = HibernateCacheValues.item(car, 3L).lock(10L, uuid, 4L);
+        lock.lock(11L, uuid, 5L);
+        lock.unlock(12L);
+
+        AbstractReadWriteAccess.SoftLockImpl copy = roundTrip(lock);
+        assertThat(copy).isEqualTo(lock);
+        assertThat(copy.wasLockedConcurrently()).isTrue();
+        assertThat(copy.isUnlockable(lock)).isTrue();
+        assertThat(copy.toString()).isEqualTo(lock.toString());
+    }
+
+    private <T> T roundTrip(T value) {
+        return serializationService.toObject(serializationService.toData(value));
+    }
+
+    private static int size(InternalSerializationService serializationService, Object value) {
+        Data data = serializationService.toData(value);
+        return data.totalSize();
+    }
+}
@@ -0,0 +1,39 @@
+package com.cars.app.config.hazelcast;
+
+import com.cars.app.domain.Car;
+
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+
+/**
+ * Values of a second-level cache region, as written by Hibernate, whose constructors are not accessible.
+ */
+public final class HibernateCacheValues {
+
+    private HibernateCacheValues() {
+    }
+
+    /**
+     * @return the cache entry of the car, in the order of the properties of its persister.
+     */
+    public static StandardCacheEntryImpl entry(Car car) throws ReflectiveOperationException {
+        Constructor<StandardCacheEntryImpl> constructor =
+            StandardCacheEntryImpl.class.getDeclaredConstructor(Serializable[].class, String.class, Object.class);
+        constructor.setAccessible(true);
+        Serializable[] state = { car.getMake(), car.getModel(), car.getPrice(), car.getVersion() };
+        return constructor.newInstance(state, Car.class.getName(), car.getVersion());
+    }
+
+    /**
+     * @return the item holding the cache entry of the car.
+     */
+    public static AbstractReadWriteAccess.Item item(Car car, long timestamp) throws ReflectiveOperationException {
+        Constructor<AbstractReadWriteAccess.Item> constructor =
+            AbstractReadWriteAccess.Item.class.getDeclaredConstructor(Object.class, Object.class, long.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(entry(car), car.getVersion(), timestamp);
+    }
+}
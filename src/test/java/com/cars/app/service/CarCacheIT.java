@@ -0,0 +1,200 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarBulkResult;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link CarService#CARS_BY_ID_CACHE} cache, kept up to date by {@link CarCache}.
+ * <p>
+ * Not transactional, as the cache is bypassed in read-write transactions and only updated on commit.
+ */
+@SpringBootTest(classes = CarsappApp.class)
+public class CarCacheIT {
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarCache carCache;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private IMap<Object, Object> cache;
+
+    private Car car;
+
+    @BeforeEach
+    public void initTest() {
+        cache = hazelcastInstance.getMap(CarService.CARS_BY_ID_CACHE);
+        car = carService.save(new Car().make("CACHED").model("A").price(1D));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        carRepository.findById(car.getId()).ifPresent(existing -> carService.delete(existing.getId()));
+    }
+
+    @Test
+    public void findOneIsCached() {
+        assertThat(cache.containsKey(carCache.key(car.getId()))).isFalse();
+
+        assertThat(carService.findOne(car.getId())).hasValueSatisfying(found -> assertThat(found.getModel()).isEqualTo("A"));
+        assertThat(cache.containsKey(carCache.key(car.getId()))).isTrue();
+        double hits = hits("hazelcast.cache.gets") + hits("hazelcast.cache.near.gets");
+        // Changed behind the back of the service, so only the cache has the previous model
+        carRepository.saveAndFlush(carRepository.findById(car.getId()).get().model("B"));
+
+        assertThat(carService.findOne(car.getId())).hasValueSatisfying(found -> assertThat(found.getModel()).isEqualTo("A"));
+        assertThat(hits("hazelcast.cache.gets") + hits("hazelcast.cache.near.gets")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void findOneIsServedByTheLocalTier() {
+        carService.findOne(car.getId());
+        carService.findOne(car.getId());
+        double localHits = hits("hazelcast.cache.near.gets");
+        double hits = hits("hazelcast.cache.gets");
+
+        Car first = carService.findOne(car.getId()).get();
+        Car second = carService.findOne(car.getId()).get();
+
+        assertThat(hits("hazelcast.cache.near.gets")).isEqualTo(localHits + 2);
+        assertThat(hits("hazelcast.cache.gets")).isEqualTo(hits);
+        // Shared by the readers, not deserialized on each read
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void saveInvalidatesTheLocalTier() {
+        carService.findOne(car.getId());
+        carService.findOne(car.getId());
+
+        Car update = new Car().make("CACHED").model("B").price(2D);
+        update.setId(car.getId());
+        carService.save(update);
+
+        assertThat(carService.findOne(car.getId())).hasValueSatisfying(found -> assertThat(found.getModel()).isEqualTo("B"));
+    }
+
+    @Test
+    public void findOneIsNotCachedInReadWriteTransaction() {
+        new TransactionTemplate(transactionManager).execute(status -> carService.findOne(car.getId()));
+
+        assertThat(cache.containsKey(carCache.key(car.getId()))).isFalse();
+    }
+
+    @Test
+    public void saveUpdatesCachedCar() {
+        carService.findOne(car.getId());
+
+        Car update = new Car().make("CACHED").model("B").price(2D);
+        update.setId(car.getId());
+        Car updated = carService.save(update);
+
+        Car cached = (Car) cache.get(carCache.key(car.getId()));
+        assertThat(cached.getModel()).isEqualTo("B");
+        assertThat(cached.getVersion()).isEqualTo(updated.getVersion());
+    }
+
+    @Test
+    public void deleteEvictsCachedCar() {
+        carService.findOne(car.getId());
+
+        carService.delete(car.getId());
+
+        assertThat(cache.containsKey(carCache.key(car.getId()))).isFalse();
+        assertThat(carService.findOne(car.getId())).isEmpty();
+    }
+
+    @Test
+    public void bulkUpdateEvictsCachedCars() {
+        Car other = carService.save(new Car().make("CACHED").model("A").price(1D));
+        try {
+            carService.findOne(car.getId());
+            carService.findOne(other.getId());
+            Car updated = new Car().make("CACHED").model("B").price(2D);
+            updated.setId(car.getId());
+            Car otherUpdated = new Car().make("CACHED").model("B").price(2D);
+            otherUpdated.setId(other.getId());
+
+            assertThat(carService.updateAll(Arrays.asList(updated, otherUpdated)))
+                .extracting(CarBulkResult::getStatus).containsOnly(CarBulkResult.Status.UPDATED);
+
+            assertThat(cache.containsKey(carCache.key(car.getId()))).isFalse();
+            assertThat(cache.containsKey(carCache.key(other.getId()))).isFalse();
+            assertThat(carService.findOne(car.getId())).hasValueSatisfying(found -> assertThat(found.getModel()).isEqualTo("B"));
+        } finally {
+            carService.delete(other.getId());
+        }
+    }
+
+    @Test
+    public void saveEvictsCarCachedAsNotFound() {
+        Car created = new TransactionTemplate(transactionManager).execute(status -> {
+            Car saved = carService.save(new Car().make("CACHED").model("B").price(2D));
+            // Read outside of the transaction, before the car is committed
+            assertThat(CompletableFuture.supplyAsync(() -> carService.findOne(saved.getId())).join()).isEmpty();
+            assertThat(cache.containsKey(carCache.key(saved.getId()))).isTrue();
+            return saved;
+        });
+        try {
+            assertThat(carService.findOne(created.getId())).hasValueSatisfying(found -> assertThat(found.getModel()).isEqualTo("B"));
+        } finally {
+            carService.delete(created.getId());
+        }
+    }
+
+    @Test
+    public void createAllEvictsCarsCachedAsNotFound() {
+        List<CarBulkResult> results = new TransactionTemplate(transactionManager).execute(status -> {
+            List<CarBulkResult> created = carService.createAll(Arrays.asList(new Car().make("CACHED").model("B").price(2D),
+                new Car().make("CACHED").model("C").price(3D)));
+            for (CarBulkResult result : created) {
+                assertThat(CompletableFuture.supplyAsync(() -> carService.findOne(result.getId())).join()).isEmpty();
+            }
+            return created;
+        });
+        try {
+            assertThat(results).extracting(CarBulkResult::getStatus).containsOnly(CarBulkResult.Status.CREATED);
+            for (CarBulkResult result : results) {
+                assertThat(carService.findOne(result.getId())).isPresent();
+            }
+        } finally {
+            results.forEach(result -> carService.delete(result.getId()));
+        }
+    }
+
+    private double hits(String name) {
+        return meterRegistry.get(name).tag("name", CarService.CARS_BY_ID_CACHE).tag("result", "hit")
+            .functionCounter().count();
+    }
+}
@@ -0,0 +1,95 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CarColumnStore}.
+ * <p>
+ * Not transactional, as the store is bypassed in read-write transactions and only updated on commit.
+ */
+@SpringBootTest(classes = CarsappApp.class, properties = "application.column-store.enabled=true")
+public class CarColumnStoreIT {
+
+    private static final String MAKE = "COLUMNMAKE";
+
+    @Autowired
+    private CarColumnStore carColumnStore;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Car car;
+
+    @BeforeEach
+    public void initTest() {
+        car = carService.save(new Car().make(MAKE).model("A").price(1D));
+        carColumnStore.reload();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (carRepository.existsById(car.getId())) {
+            carService.delete(car.getId());
+        }
+    }
+
+    private static CarCriteria criteria() {
+        StringFilter make = new StringFilter();
+        make.setEquals(MAKE);
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(make);
+        return criteria;
+    }
+
+    @Test
+    public void queriesAreAnsweredFromTheStore() {
+        assertThat(carColumnStore.isAvailable()).isTrue();
+        // Changed behind the back of the store, which is not reloaded
+        new TransactionTemplate(transactionManager)
+            .execute(status -> jdbcTemplate.update("update car set model = 'B' where id = ?", car.getId()));
+
+        assertThat(carQueryService.findByCriteria(criteria())).extracting(Car::getModel).containsExactly("A");
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(1);
+        assertThat(carQueryService.findByCriteria(criteria(), null, 10)).extracting(Car::getId).containsExactly(car.getId());
+    }
+
+    @Test
+    public void storeFollowsCommittedChanges() {
+        car.setModel("C");
+        carService.save(car);
+        assertThat(carQueryService.findByCriteria(criteria())).extracting(Car::getModel).containsExactly("C");
+
+        Car other = carService.save(new Car().make(MAKE).model("D").price(2D));
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(2);
+
+        carService.delete(other.getId());
+        assertThat(carQueryService.findByCriteria(criteria())).extracting(Car::getId).containsExactly(car.getId());
+    }
+}
@@ -0,0 +1,180 @@
+package com.cars.app.service;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link CarColumns}, checked against {@link CarCriteriaMatcher} on random cars and criteria.
+ */
+public class CarColumnsTest {
+
+    private static final List<String> MAKES = Arrays.asList("Audi", "AUDI", "BMW", "Fiat", null);
+
+    private static final List<String> MODELS = Arrays.asList("A4", "X5", "Panda", "500", null);
+
+    private static final Comparator<Car> PRICE_ORDER = Comparator
+        .comparing(Car::getPrice, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+        .thenComparing(Car::getId);
+
+    private final Random random = new Random(42);
+
+    private Car randomCar(long id) {
+        Car car = new Car()
+            .make(MAKES.get(random.nextInt(MAKES.size())))
+            .model(MODELS.get(random.nextInt(MODELS.size())))
+            .price(random.nextInt(10) == 0 ? null : (double) random.nextInt(20));
+        car.setId(id);
+        return car;
+    }
+
+    private StringFilter randomStringFilter(List<String> values) {
+        StringFilter filter = new StringFilter();
+        String value = values.get(random.nextInt(values.size() - 1));
+        switch (random.nextInt(7)) {
+            case 0:
+                filter.setEquals(value);
+                break;
+            case 1:
+                filter.setIn(Arrays.asList(value, values.get(random.nextInt(values.size() - 1))));
+                break;
+            case 2:
+                filter.setNotIn(Arrays.asList(value));
+                break;
+            case 3:
+                filter.setContains(value.substring(0, 1).toLowerCase());
+                break;
+            case 4:
+                filter.setNotEquals(value);
+                break;
+            case 5:
+                filter.setSpecified(random.nextBoolean());
+                break;
+            default:
+                return null;
+        }
+        return filter;
+    }
+
+    private DoubleFilter randomPriceFilter() {
+        DoubleFilter filter = new DoubleFilter();
+        switch (random.nextInt(6)) {
+            case 0:
+                filter.setEquals((double) random.nextInt(20));
+                break;
+            case 1:
+                filter.setIn(Arrays.asList((double) random.nextInt(20), (double) random.nextInt(20)));
+                break;
+            case 2:
+                filter.setGreaterThan((double) random.nextInt(20));
+                filter.setLessThanOrEqual((double) random.nextInt(20));
+                break;
+            case 3:
+                filter.setGreaterThanOrEqual((double) random.nextInt(20));
+                filter.setNotEquals((double) random.nextInt(20));
+                break;
+            case 4:
+                filter.setSpecified(random.nextBoolean());
+                filter.setLessThan((double) random.nextInt(20));
+                break;
+            default:
+                return null;
+        }
+        return filter;
+    }
+
+    private CarCriteria randomCriteria(long maxId) {
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(randomStringFilter(MAKES));
+        criteria.setModel(randomStringFilter(MODELS));
+        criteria.setPrice(randomPriceFilter());
+        if (random.nextInt(4) == 0) {
+            LongFilter id = new LongFilter();
+            id.setIn(Arrays.asList((long) random.nextInt((int) maxId), (long) random.nextInt((int) maxId)));
+            criteria.setId(id);
+        }
+        return criteria;
+    }
+
+    private static List<Car> expected(Map<Long, Car> cars, CarCriteria criteria, boolean ignoreCase) {
+        return cars.values().stream()
+            .filter(car -> CarCriteriaMatcher.matches(criteria, car, ignoreCase))
+            .sorted(Comparator.comparing(Car::getId))
+            .collect(Collectors.toList());
+    }
+
+    private static void assertSameCars(List<Car> actual, List<Car> expected) {
+        assertThat(actual).usingElementComparatorOnFields("id", "make", "model", "price").containsExactlyElementsOf(expected);
+    }
+
+    private void checkQueries(CarColumns columns, Map<Long, Car> cars, boolean ignoreCase, long maxId) {
+        assertThat(columns.size()).isEqualTo(cars.size());
+        for (int i = 0; i < 50; i++) {
+            CarCriteria criteria = randomCriteria(maxId);
+            List<Car> expected = expected(cars, criteria, ignoreCase);
+            assertSameCars(columns.find(criteria), expected);
+            assertThat(columns.count(criteria)).isEqualTo(expected.size());
+
+            List<Car> byPrice = expected.stream().sorted(PRICE_ORDER).collect(Collectors.toList());
+            assertSameCars(columns.findAfter(criteria, null, 5), byPrice.subList(0, Math.min(5, byPrice.size())));
+            if (!byPrice.isEmpty()) {
+                Car last = byPrice.get(random.nextInt(byPrice.size()));
+                List<Car> after = byPrice.subList(byPrice.indexOf(last) + 1, byPrice.size());
+                assertSameCars(columns.findAfter(criteria, new CarCursor(last.getPrice(), last.getId()), 5),
+                    after.subList(0, Math.min(5, after.size())));
+            }
+        }
+    }
+
+    @Test
+    public void queriesMatchTheCriteriaSemantics() {
+        for (boolean ignoreCase : new boolean[] {false, true}) {
+            Map<Long, Car> cars = new LinkedHashMap<>();
+            List<Car> loaded = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                Car car = randomCar(id * 3);
+                cars.put(car.getId(), car);
+                loaded.add(car);
+            }
+            CarColumns columns = CarColumns.of(loaded, ignoreCase);
+            checkQueries(columns, cars, ignoreCase, 600);
+        }
+    }
+
+    @Test
+    public void incrementalChangesAreIndexed() {
+        CarColumns columns = new CarColumns(false);
+        Map<Long, Car> cars = new LinkedHashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                columns.delete(id);
+                cars.remove(id);
+            } else {
+                Car car = randomCar(id);
+                columns.upsert(car);
+                cars.put(id, car);
+            }
+            if (i % 200 == 0) {
+                checkQueries(columns, cars, false, 300);
+            }
+        }
+        checkQueries(columns, cars, false, 300);
+    }
+}
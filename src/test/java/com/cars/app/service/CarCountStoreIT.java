@@ -0,0 +1,167 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+
+import com.hazelcast.core.HazelcastInstance;
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CarCountStore}.
+ * <p>
+ * Not transactional, as the counters are only updated on commit.
+ */
+@SpringBootTest(classes = CarsappApp.class)
+public class CarCountStoreIT {
+
+    private static final String MAKE = "COUNTEDMAKE";
+
+    @Autowired
+    private CarCountStore carCountStore;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    public void initTest() {
+        carCountStore.reconcile();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ids.stream().filter(carRepository::existsById).forEach(carService::delete);
+    }
+
+    private Car save(String make, String model, Double price) {
+        Car car = carService.save(new Car().make(make).model(model).price(price));
+        ids.add(car.getId());
+        return car;
+    }
+
+    private static CarCriteria criteria(String make, String model) {
+        CarCriteria criteria = new CarCriteria();
+        if (make != null) {
+            StringFilter filter = new StringFilter();
+            filter.setEquals(make);
+            criteria.setMake(filter);
+        }
+        if (model != null) {
+            StringFilter filter = new StringFilter();
+            filter.setEquals(model);
+            criteria.setModel(filter);
+        }
+        return criteria;
+    }
+
+    private static CarCriteria priceCriteria(double from, double to) {
+        DoubleFilter filter = new DoubleFilter();
+        filter.setGreaterThanOrEqual(from);
+        filter.setLessThan(to);
+        CarCriteria criteria = new CarCriteria();
+        criteria.setPrice(filter);
+        return criteria;
+    }
+
+    @Test
+    public void countsFollowChanges() {
+        Car car = save(MAKE, "A", 1D);
+        save(MAKE, "B", 1D);
+
+        assertThat(carCountStore.count(criteria(MAKE, null))).hasValue(2);
+        assertThat(carCountStore.count(criteria(MAKE, "A"))).hasValue(1);
+
+        car.setModel("B");
+        carService.save(car);
+        assertThat(carCountStore.count(criteria(MAKE, "A"))).hasValue(0);
+        assertThat(carCountStore.count(criteria(MAKE, "B"))).hasValue(2);
+
+        carService.delete(car.getId());
+        assertThat(carCountStore.count(criteria(MAKE, null))).hasValue(1);
+        assertThat(carCountStore.count(criteria(null, null))).hasValue(carRepository.count());
+    }
+
+    @Test
+    public void countsPriceBuckets() {
+        long before = carCountStore.count(priceCriteria(990000, 1010000)).getAsLong();
+
+        save(MAKE, "A", 1000000D);
+        save(MAKE, "A", 1009999.99D);
+        save(MAKE, "A", 1010000D);
+
+        assertThat(carCountStore.count(priceCriteria(990000, 1010000))).hasValue(before + 2);
+        long expected = carRepository.findAll().stream().filter(car -> car.getPrice() != null && car.getPrice() >= 1000000 && car.getPrice() < 1020000).count();
+        assertThat(carCountStore.count(priceCriteria(1000000, 1020000))).hasValue(expected);
+
+        carCountStore.reconcile();
+
+        assertThat(carCountStore.count(priceCriteria(990000, 1010000))).hasValue(before + 2);
+        assertThat(carCountStore.count(priceCriteria(1000000, 1020000))).hasValue(expected);
+    }
+
+    @Test
+    public void uncoveredCriteriaFallBackToTheDatabase() {
+        CarCriteria criteria = criteria(MAKE, null);
+        criteria.getMake().setContains("COUNTED");
+        assertThat(carCountStore.count(criteria)).isEmpty();
+
+        CarCriteria combined = priceCriteria(0, 10000);
+        combined.setMake(criteria(MAKE, null).getMake());
+        assertThat(carCountStore.count(combined)).isEmpty();
+
+        assertThat(carCountStore.count(priceCriteria(1, 10000))).isEmpty();
+    }
+
+    @Test
+    public void reconcileFixesDrift() {
+        save(MAKE, "A", 1D);
+        hazelcastInstance.getMap(CarCountStore.MAP_NAME)
+            .put(new CarCountStore.Key(CarCountStore.Dimension.MAKE, MAKE, null, null), 42L);
+        assertThat(carCountStore.count(criteria(MAKE, null))).hasValue(42);
+
+        carCountStore.reconcile();
+
+        assertThat(carCountStore.count(criteria(MAKE, null))).hasValue(1);
+    }
+
+    @Test
+    public void reconcileRemovesUnknownCounters() {
+        hazelcastInstance.getMap(CarCountStore.MAP_NAME)
+            .put(new CarCountStore.Key(CarCountStore.Dimension.MODEL, null, "UNKNOWNMODEL", null), 3L);
+
+        carCountStore.reconcile();
+
+        assertThat(carCountStore.count(criteria(null, "UNKNOWNMODEL"))).hasValue(0);
+        assertThat(hazelcastInstance.getMap(CarCountStore.MAP_NAME))
+            .doesNotContainKey(new CarCountStore.Key(CarCountStore.Dimension.MODEL, null, "UNKNOWNMODEL", null));
+    }
+
+    @Test
+    public void bucketIsConsistentWithRangeQueries() {
+        assertThat(CarCountStore.bucket(0D, 10000)).isEqualTo(0);
+        assertThat(CarCountStore.bucket(9999.99D, 10000)).isEqualTo(0);
+        assertThat(CarCountStore.bucket(10000D, 10000)).isEqualTo(1);
+        assertThat(CarCountStore.bucket(-1D, 10000)).isEqualTo(-1);
+        assertThat(CarCountStore.bucket(0.3D, 0.1D)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,93 @@
+package com.cars.app.service;
+
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarCriteria;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CarCriteriaMatcher} utility class.
+ */
+public class CarCriteriaMatcherTest {
+
+    private static Car car(Long id, String make, String model, Double price) {
+        Car car = new Car().make(make).model(model).price(price);
+        car.setId(id);
+        return car;
+    }
+
+    @Test
+    public void testNullCriteriaMatchesEverything() {
+        assertThat(CarCriteriaMatcher.matches(null, car(1L, null, null, null), false)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(new CarCriteria(), car(1L, null, null, null), false)).isTrue();
+    }
+
+    @Test
+    public void testStringFilter() {
+        StringFilter filter = new StringFilter();
+        filter.setEquals("Audi");
+        assertThat(CarCriteriaMatcher.matches(filter, "Audi", false)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, "AUDI", false)).isFalse();
+        assertThat(CarCriteriaMatcher.matches(filter, "AUDI", true)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, null, true)).isFalse();
+
+        filter = new StringFilter();
+        filter.setContains("ud");
+        assertThat(CarCriteriaMatcher.matches(filter, "AUDI", false)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, "BMW", false)).isFalse();
+
+        filter = new StringFilter();
+        filter.setNotIn(Arrays.asList("Audi", "BMW"));
+        assertThat(CarCriteriaMatcher.matches(filter, "Fiat", false)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, "BMW", false)).isFalse();
+        assertThat(CarCriteriaMatcher.matches(filter, null, false)).isFalse();
+
+        filter = new StringFilter();
+        filter.setSpecified(false);
+        assertThat(CarCriteriaMatcher.matches(filter, null, false)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, "Audi", false)).isFalse();
+    }
+
+    @Test
+    public void testRangeFilter() {
+        DoubleFilter filter = new DoubleFilter();
+        filter.setGreaterThanOrEqual(10D);
+        filter.setLessThan(20D);
+        assertThat(CarCriteriaMatcher.matches(filter, 10D)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, 20D)).isFalse();
+        assertThat(CarCriteriaMatcher.matches(filter, null)).isFalse();
+
+        filter = new DoubleFilter();
+        filter.setNotEquals(10D);
+        assertThat(CarCriteriaMatcher.matches(filter, 11D)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, 10D)).isFalse();
+        assertThat(CarCriteriaMatcher.matches(filter, null)).isFalse();
+
+        filter = new DoubleFilter();
+        filter.setSpecified(true);
+        assertThat(CarCriteriaMatcher.matches(filter, 1D)).isTrue();
+        assertThat(CarCriteriaMatcher.matches(filter, null)).isFalse();
+    }
+
+    @Test
+    public void testMembershipChanged() {
+        CarCriteria criteria = new CarCriteria();
+        StringFilter make = new StringFilter();
+        make.setEquals("Audi");
+        criteria.setMake(make);
+
+        assertThat(CarCriteriaMatcher.membershipChanged(criteria, null, car(1L, "Audi", "A4", 1D))).isTrue();
+        assertThat(CarCriteriaMatcher.membershipChanged(criteria, car(1L, "Audi", "A4", 1D), null)).isTrue();
+        assertThat(CarCriteriaMatcher.membershipChanged(criteria, car(1L, "Audi", "A4", 1D), car(1L, "Audi", "A6", 2D))).isFalse();
+        assertThat(CarCriteriaMatcher.membershipChanged(criteria, car(1L, "Audi", "A4", 1D), car(1L, "BMW", "A4", 1D))).isTrue();
+        assertThat(CarCriteriaMatcher.membershipChanged(criteria, null, car(1L, "BMW", "X5", 1D))).isFalse();
+        // Only a case insensitive collation would return it, the result may still have changed
+        assertThat(CarCriteriaMatcher.membershipChanged(criteria, null, car(1L, "AUDI", "A4", 1D))).isTrue();
+    }
+}
@@ -0,0 +1,174 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CarCriteriaSql}, checked against {@link CarQueryService} on random criteria.
+ */
+@SpringBootTest(classes = CarsappApp.class)
+@Transactional
+public class CarCriteriaSqlIT {
+
+    private static final List<String> MAKES = Arrays.asList("SqlAudi", "SQLAUDI", "SqlBmw", "SqlFiat", null);
+
+    private static final List<String> MODELS = Arrays.asList("A4", "X5", "Panda", null);
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private StringFilter randomStringFilter(List<String> values) {
+        StringFilter filter = new StringFilter();
+        String value = values.get(random.nextInt(values.size() - 1));
+        switch (random.nextInt(8)) {
+            case 0:
+                filter.setEquals(value);
+                break;
+            case 1:
+                filter.setIn(Arrays.asList(value, pick(values.subList(0, values.size() - 1))));
+                break;
+            case 2:
+                filter.setNotIn(Collections.singletonList(value));
+                break;
+            case 3:
+                filter.setContains(value.substring(1).toLowerCase());
+                break;
+            case 4:
+                filter.setDoesNotContain(value.substring(0, 2));
+                break;
+            case 5:
+                filter.setNotEquals(value);
+                break;
+            case 6:
+                filter.setSpecified(random.nextBoolean());
+                break;
+            default:
+                return null;
+        }
+        return filter;
+    }
+
+    private DoubleFilter randomPriceFilter() {
+        DoubleFilter filter = new DoubleFilter();
+        switch (random.nextInt(5)) {
+            case 0:
+                filter.setEquals((double) random.nextInt(10));
+                break;
+            case 1:
+                filter.setIn(Arrays.asList((double) random.nextInt(10), (double) random.nextInt(10)));
+                break;
+            case 2:
+                filter.setGreaterThan((double) random.nextInt(10));
+                filter.setLessThanOrEqual((double) random.nextInt(10));
+                filter.setNotIn(Collections.singletonList((double) random.nextInt(10)));
+                break;
+            case 3:
+                filter.setSpecified(random.nextBoolean());
+                filter.setGreaterThanOrEqual((double) random.nextInt(10));
+                filter.setNotEquals((double) random.nextInt(10));
+                filter.setLessThan((double) random.nextInt(10));
+                break;
+            default:
+                return null;
+        }
+        return filter;
+    }
+
+    @Test
+    public void conditionsMatchTheSpecification() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Car car = new Car().make(pick(MAKES)).model(pick(MODELS)).price(random.nextInt(8) == 0 ? null : (double) random.nextInt(10));
+            ids.add(carRepository.saveAndFlush(car).getId());
+        }
+        for (int i = 0; i < 200; i++) {
+            CarCriteria criteria = new CarCriteria();
+            // Restricted to the cars of the test, on which the other filters are random
+            LongFilter id = new LongFilter();
+            if (random.nextBoolean()) {
+                id.setIn(ids);
+            } else {
+                id.setGreaterThanOrEqual(ids.get(0));
+                id.setLessThan(ids.get(ids.size() - 1));
+            }
+            criteria.setId(id);
+            criteria.setMake(randomStringFilter(MAKES));
+            criteria.setModel(randomStringFilter(MODELS));
+            criteria.setPrice(randomPriceFilter());
+
+            CarCriteriaSql sql = CarCriteriaSql.of(criteria);
+            List<Long> actual = jdbcTemplate.queryForList("select id from car" + sql.getWhereClause() + " order by id",
+                sql.getParameters(), Long.class);
+            List<Long> expected = carQueryService.findByCriteria(criteria).stream()
+                .map(Car::getId)
+                .sorted()
+                .collect(Collectors.toList());
+            assertThat(actual).as(criteria.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void seekConditionMatchesTheSpecification() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Car car = new Car().make("SqlSeek").price(random.nextInt(4) == 0 ? null : (double) random.nextInt(5));
+            ids.add(carRepository.saveAndFlush(car).getId());
+        }
+        CarCriteria criteria = new CarCriteria();
+        LongFilter id = new LongFilter();
+        id.setIn(ids);
+        criteria.setId(id);
+        CarCursor cursor = null;
+        for (int page = 0; page < 10; page++) {
+            CarCriteriaSql sql = CarCriteriaSql.of(criteria).after(cursor);
+            List<Long> actual = jdbcTemplate.queryForList("select id from car" + sql.getWhereClause() + " order by price, id limit 4",
+                sql.getParameters(), Long.class);
+            List<Car> expected = carQueryService.findByCriteria(criteria, cursor, 4);
+            assertThat(actual).as(String.valueOf(cursor)).isEqualTo(expected.stream().map(Car::getId).collect(Collectors.toList()));
+            if (expected.isEmpty()) {
+                return;
+            }
+            Car last = expected.get(expected.size() - 1);
+            cursor = new CarCursor(last.getPrice(), last.getId());
+        }
+    }
+
+    @Test
+    public void noCriteriaHasNoCondition() {
+        assertThat(CarCriteriaSql.of(null).getWhereClause()).isEmpty();
+        assertThat(CarCriteriaSql.of(new CarCriteria()).getParameters()).isEmpty();
+    }
+}
@@ -0,0 +1,176 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarImportResult;
+
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for {@link CarImportService}.
+ * <p>
+ * Not transactional, as the chunks are inserted by other threads, each in its own transaction. Small chunks and
+ * a single queued chunk make the parsers wait for the writers.
+ */
+@SpringBootTest(classes = CarsappApp.class, properties = {
+    "application.bulk.chunk-size=2",
+    "application.import.parser-threads=3",
+    "application.import.writer-threads=2",
+    "application.import.queue-capacity=1",
+    "application.import.progress-interval=1"
+})
+public class CarImportServiceIT {
+
+    private static final String MAKE = "IMPORTMAKE";
+
+    @Autowired
+    private CarImportService carImportService;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CarService carService;
+
+    @AfterEach
+    public void cleanup() {
+        carService.deleteAll(criteria());
+    }
+
+    private static CarCriteria criteria() {
+        StringFilter make = new StringFilter();
+        make.setContains(MAKE);
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(make);
+        return criteria;
+    }
+
+    private CarImportResult importCars(String content, CarImportService.Format format, List<CarImportResult> progress) throws IOException {
+        return carImportService.importCars(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, progress::add);
+    }
+
+    @Test
+    public void importCsv() throws Exception {
+        String csv = "id;make;model;price\n" +
+            "1;" + MAKE + "1;A;100\n" +
+            "\n" +
+            "2;\"" + MAKE + "2;\"\"quoted\"\"\";B;\n" +
+            "3;" + MAKE + "3;C;not a price\n" +
+            "4;" + MAKE + "4;D\n" +
+            "5;" + MAKE + "5;E;5.5\n";
+
+        CarImportResult result = importCars(csv, CarImportService.Format.CSV, new ArrayList<>());
+
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.getLines()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getInvalid()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(0);
+        assertThat(result.getErrors()).extracting(CarImportResult.LineError::getLine).containsExactlyInAnyOrder(5L, 6L);
+        assertThat(carQueryService.findByCriteria(criteria()))
+            .extracting(Car::getMake, Car::getModel, Car::getPrice)
+            .containsExactlyInAnyOrder(
+                tuple(MAKE + "1", "A", 100D),
+                tuple(MAKE + "2;\"quoted\"", "B", null),
+                tuple(MAKE + "5", "E", 5.5D));
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        String ndjson = "{\"id\":1,\"make\":\"" + MAKE + "1\",\"model\":\"A\",\"price\":1.0,\"version\":3}\n" +
+            "{\"make\":\"" + MAKE + "2\"\n" +
+            "{\"make\":\"" + MAKE + "3\",\"price\":3}\n";
+
+        CarImportResult result = importCars(ndjson, CarImportService.Format.NDJSON, new ArrayList<>());
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(CarImportResult.LineError::getLine).containsExactly(2L);
+        List<Car> cars = carQueryService.findByCriteria(criteria());
+        assertThat(cars).extracting(Car::getMake).containsExactlyInAnyOrder(MAKE + "1", MAKE + "3");
+        // The ids and versions of the input are ignored
+        assertThat(cars).extracting(Car::getId).doesNotContain(1L);
+        assertThat(cars).extracting(Car::getVersion).containsOnly(0L);
+    }
+
+    @Test
+    public void importManyLinesWithProgress() throws Exception {
+        StringBuilder csv = new StringBuilder("make;model;price\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append(MAKE).append(';').append(i).append(';').append(i).append('\n');
+        }
+        List<CarImportResult> progress = new ArrayList<>();
+
+        CarImportResult result = importCars(csv.toString(), CarImportService.Format.CSV, progress);
+
+        assertThat(result.getLines()).isEqualTo(500);
+        assertThat(result.getImported()).isEqualTo(500);
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(500);
+        assertThat(progress).allMatch(report -> !report.isDone() && report.getImported() <= 500);
+    }
+
+    @Test
+    public void importWhileAnotherImportRuns() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Blocks the first import until released, then ends it with a header
+        InputStream blocking = new SequenceInputStream(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return -1;
+            }
+        }, new ByteArrayInputStream("make;model;price\n".getBytes(StandardCharsets.UTF_8)));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CarImportResult> first = executor.submit(() -> carImportService.importCars(blocking, CarImportService.Format.CSV, progress -> { }));
+            assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> importCars("make;model;price\n" + MAKE + ";A;1\n", CarImportService.Format.CSV, new ArrayList<>()))
+                .isInstanceOf(ConcurrencyFailureException.class);
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).isDone()).isTrue();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        // The threads are free for the next import
+        assertThat(importCars("make;model;price\n" + MAKE + ";A;1\n", CarImportService.Format.CSV, new ArrayList<>()).getImported()).isEqualTo(1);
+    }
+
+    @Test
+    public void importCsvWithoutImportedColumns() {
+        assertThatThrownBy(() -> importCars("id;name\n1;" + MAKE + "\n", CarImportService.Format.CSV, new ArrayList<>()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("make");
+    }
+}
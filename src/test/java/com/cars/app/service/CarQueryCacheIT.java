@@ -0,0 +1,163 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CarQueryCache}.
+ * <p>
+ * Not transactional, as the cache is bypassed in read-write transactions and only invalidated on commit.
+ */
+@SpringBootTest(classes = CarsappApp.class)
+public class CarQueryCacheIT {
+
+    private static final String MAKE = "CACHEDMAKE";
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Car car;
+
+    @BeforeEach
+    public void initTest() {
+        car = carService.save(new Car().make(MAKE).model("A").price(1D));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        carRepository.findById(car.getId()).ifPresent(existing -> carService.delete(existing.getId()));
+    }
+
+    private CarCriteria criteria() {
+        StringFilter make = new StringFilter();
+        make.setEquals(MAKE);
+        // Not an equality count only, which would be answered by CarCountStore
+        DoubleFilter price = new DoubleFilter();
+        price.setGreaterThan(0D);
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(make);
+        criteria.setPrice(price);
+        return criteria;
+    }
+
+    private double count(String kind, String result) {
+        return meterRegistry.get("cars.query.cache").tag("kind", kind).tag("result", result).counter().count();
+    }
+
+    @Test
+    public void findByCriteriaIsCached() {
+        double hits = count("list", "hit");
+
+        assertThat(carQueryService.findByCriteria(criteria())).extracting(Car::getId).containsExactly(car.getId());
+        assertThat(carQueryService.findByCriteria(criteria())).extracting(Car::getId).containsExactly(car.getId());
+
+        assertThat(count("list", "hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void countByCriteriaIsCached() {
+        double hits = count("count", "hit");
+
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(1);
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(1);
+
+        assertThat(count("count", "hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void updateKeepingMembershipDoesNotEvict() {
+        carQueryService.findByCriteria(criteria());
+        double hits = count("list", "hit");
+
+        car.setModel("B");
+        carService.save(car);
+
+        List<Car> cars = carQueryService.findByCriteria(criteria());
+        assertThat(cars).extracting(Car::getModel).containsExactly("B");
+        assertThat(count("list", "hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void updateChangingMembershipEvicts() {
+        carQueryService.findByCriteria(criteria());
+        carQueryService.countByCriteria(criteria());
+
+        car.setMake(MAKE + "2");
+        carService.save(car);
+
+        assertThat(carQueryService.findByCriteria(criteria())).isEmpty();
+        assertThat(carQueryService.countByCriteria(criteria())).isZero();
+    }
+
+    @Test
+    public void updateOfAMatchingCarEvictsFacets() {
+        assertThat(carQueryService.findFacets(criteria()).getMaxPrice()).isEqualTo(1D);
+
+        car.setPrice(3D);
+        carService.save(car);
+
+        assertThat(carQueryService.findFacets(criteria()).getMaxPrice()).isEqualTo(3D);
+    }
+
+    @Test
+    public void creationAndDeletionEvict() {
+        carQueryService.countByCriteria(criteria());
+
+        Car other = carService.save(new Car().make(MAKE).model("C").price(2D));
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(2);
+
+        carService.delete(other.getId());
+        assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(1);
+    }
+
+    @Test
+    public void bulkChangeEvictsOnlyModifiedResults() {
+        Car other = carService.save(new Car().make(MAKE + "2").model("C").price(2D));
+        try {
+            CarCriteria otherCriteria = criteria();
+            otherCriteria.getMake().setEquals(MAKE + "2");
+            carQueryService.countByCriteria(criteria());
+            carQueryService.countByCriteria(otherCriteria);
+            double hits = count("count", "hit");
+
+            // Updated together, the first keeping its membership, the second leaving its result
+            Car updated = new Car().make(MAKE).model("B").price(1D);
+            updated.setId(car.getId());
+            Car otherUpdated = new Car().make(MAKE + "3").model("C").price(2D);
+            otherUpdated.setId(other.getId());
+            carService.updateAll(Arrays.asList(updated, otherUpdated));
+
+            assertThat(carQueryService.countByCriteria(criteria())).isEqualTo(1);
+            assertThat(count("count", "hit")).isEqualTo(hits + 1);
+            assertThat(carQueryService.countByCriteria(otherCriteria)).isZero();
+            assertThat(count("count", "hit")).isEqualTo(hits + 1);
+        } finally {
+            carService.delete(other.getId());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarCursor;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Plan regression tests for the queries generated by {@link CarQueryService}: each filter shape covered by an index
+ * of the {@code car} table must use it instead of a table scan.
+ * <p>
+ * The SQL is captured with {@link RecordingStatementInspector} and explained by H2, so these tests are skipped
+ * when running against another database.
+ */
+@SpringBootTest(classes = CarsappApp.class)
+@Transactional
+@ExtendWith(RecordingStatementInspector.class)
+public class CarQueryPlanIT {
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void assumeH2() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        assumeTrue("H2".equals(product), "Plans are only checked on H2");
+    }
+
+    /**
+     * Run the query and return the plan of the last statement it issued.
+     */
+    private String explain(Runnable query) {
+        RecordingStatementInspector.clear();
+        query.run();
+        List<String> statements = RecordingStatementInspector.statements();
+        assertThat(statements).isNotEmpty();
+        String sql = statements.get(statements.size() - 1);
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // The plan does not depend on the values
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setString(i, "1");
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private String explainFind(CarCriteria criteria) {
+        return explain(() -> carQueryService.findByCriteria(criteria));
+    }
+
+    private String explainCount(CarCriteria criteria) {
+        return explain(() -> carQueryService.countByCriteria(criteria));
+    }
+
+    private static StringFilter equalTo(String value) {
+        StringFilter filter = new StringFilter();
+        filter.setEquals(value);
+        return filter;
+    }
+
+    private static DoubleFilter between(Double from, Double to) {
+        DoubleFilter filter = new DoubleFilter();
+        filter.setGreaterThanOrEqual(from);
+        filter.setLessThan(to);
+        return filter;
+    }
+
+    @Test
+    public void makeEqualsUsesMakeIndex() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(equalTo("Audi"));
+
+        assertThat(explainFind(criteria)).doesNotContain("tableScan").containsPattern("IDX_CAR_MAKE_(MODEL|PRICE)");
+        assertThat(explainCount(criteria)).doesNotContain("tableScan").containsPattern("IDX_CAR_MAKE_(MODEL|PRICE)");
+    }
+
+    @Test
+    public void makeInUsesMakeIndex() {
+        StringFilter make = new StringFilter();
+        make.setIn(Arrays.asList("Audi", "BMW"));
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(make);
+
+        assertThat(explainFind(criteria)).doesNotContain("tableScan").containsPattern("IDX_CAR_MAKE_(MODEL|PRICE)");
+    }
+
+    @Test
+    public void makeAndModelEqualsUsesMakeModelIndex() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(equalTo("Audi"));
+        criteria.setModel(equalTo("A4"));
+
+        assertThat(explainFind(criteria)).doesNotContain("tableScan").contains("IDX_CAR_MAKE_MODEL");
+        assertThat(explainCount(criteria)).doesNotContain("tableScan").contains("IDX_CAR_MAKE_MODEL");
+    }
+
+    @Test
+    public void modelEqualsUsesModelIndex() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.setModel(equalTo("A4"));
+
+        assertThat(explainFind(criteria)).doesNotContain("tableScan").contains("IDX_CAR_MODEL");
+    }
+
+    @Test
+    public void priceRangeUsesPriceIndex() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.setPrice(between(10000D, 20000D));
+
+        assertThat(explainFind(criteria)).doesNotContain("tableScan").contains("IDX_CAR_PRICE");
+        assertThat(explainCount(criteria)).doesNotContain("tableScan").contains("IDX_CAR_PRICE");
+    }
+
+    @Test
+    public void makeAndPriceRangeUsesMakePriceIndex() {
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(equalTo("Audi"));
+        criteria.setPrice(between(10000D, 20000D));
+
+        assertThat(explainFind(criteria)).doesNotContain("tableScan").contains("IDX_CAR_MAKE_PRICE");
+    }
+
+    @Test
+    public void keysetFirstPageUsesPriceIndex() {
+        assertThat(explain(() -> carQueryService.findByCriteria(new CarCriteria(), null, 20))).contains("IDX_CAR_PRICE");
+    }
+
+    @Test
+    public void keysetNextPageSeeksInPriceIndex() {
+        // The index must be entered at the cursor, not scanned from the first page
+        assertThat(explain(() -> carQueryService.findByCriteria(new CarCriteria(), new CarCursor(10000D, 1000L), 20)))
+            .doesNotContain("tableScan").contains("IDX_CAR_PRICE: PRICE >=");
+    }
+
+    @Test
+    public void containsIsNotCovered() {
+        StringFilter make = new StringFilter();
+        make.setContains("ud");
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(make);
+
+        assertThat(explainFind(criteria)).contains("tableScan");
+    }
+}
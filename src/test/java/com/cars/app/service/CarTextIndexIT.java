@@ -0,0 +1,137 @@
+package com.cars.app.service;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.dto.CarCriteria;
+
+import io.github.jhipster.service.filter.StringFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CarTextIndex}.
+ * <p>
+ * Not transactional, as the index is bypassed in read-write transactions and only updated on commit.
+ */
+@SpringBootTest(classes = CarsappApp.class, properties = {"application.text-index.enabled=true", "application.text-index.max-candidates=2"})
+@ExtendWith(RecordingStatementInspector.class)
+public class CarTextIndexIT {
+
+    private static final List<String> FIELDS = Collections.singletonList("id");
+
+    @Autowired
+    private CarTextIndex carTextIndex;
+
+    @Autowired
+    private CarQueryService carQueryService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Car car;
+
+    private Car other;
+
+    @BeforeEach
+    public void initTest() {
+        car = carService.save(new Car().make("TEXTINDEX Roadster").model("Trigram").price(1D));
+        other = carService.save(new Car().make("Textindex Coupe").model("Bigram").price(2D));
+        carTextIndex.reload();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (Car saved : Arrays.asList(car, other)) {
+            if (carRepository.existsById(saved.getId())) {
+                carService.delete(saved.getId());
+            }
+        }
+    }
+
+    private static CarCriteria makeContains(String text) {
+        StringFilter make = new StringFilter();
+        make.setContains(text);
+        CarCriteria criteria = new CarCriteria();
+        criteria.setMake(make);
+        return criteria;
+    }
+
+    private List<Object> ids(CarCriteria criteria) {
+        RecordingStatementInspector.clear();
+        return carQueryService.findByCriteria(criteria, FIELDS).stream().map(fields -> fields.get("id")).collect(Collectors.toList());
+    }
+
+    @Test
+    public void containsFiltersAreResolvedToCandidates() {
+        assertThat(carTextIndex.candidates(makeContains("extInd"))).hasValueSatisfying(ids ->
+            assertThat(ids).containsExactlyInAnyOrder(car.getId(), other.getId()));
+
+        CarCriteria criteria = makeContains("textindex r");
+        StringFilter model = new StringFilter();
+        model.setContains("gram");
+        criteria.setModel(model);
+        assertThat(ids(criteria)).containsExactly(car.getId());
+        assertThat(RecordingStatementInspector.statements()).hasSize(1);
+        assertThat(RecordingStatementInspector.statements().get(0)).contains(".id in (");
+
+        assertThat(ids(makeContains("no such make"))).isEmpty();
+    }
+
+    @Test
+    public void indexFollowsCommittedChanges() {
+        other.setMake("Renamed");
+        carService.save(other);
+        assertThat(carTextIndex.candidates(makeContains("textindex"))).hasValue(Collections.singleton(car.getId()));
+
+        // Changed behind the back of the index, which is not reloaded: only the candidates are checked
+        new TransactionTemplate(transactionManager)
+            .execute(status -> jdbcTemplate.update("update car set make = 'Textindex Sedan' where id = ?", other.getId()));
+        assertThat(ids(makeContains("textindex"))).containsExactly(car.getId());
+    }
+
+    @Test
+    public void indexIsNotUsedForTooManyCandidatesOrWildcards() {
+        Car third = carService.save(new Car().make("TextIndex Van"));
+        try {
+            assertThat(carTextIndex.candidates(makeContains("textindex"))).isEmpty();
+            assertThat(ids(makeContains("textindex"))).hasSize(3);
+            assertThat(RecordingStatementInspector.statements().get(0)).doesNotContain(".id in (");
+
+            // The model is selective enough on its own
+            CarCriteria criteria = makeContains("textindex");
+            StringFilter model = new StringFilter();
+            model.setContains("trigram");
+            criteria.setModel(model);
+            assertThat(carTextIndex.candidates(criteria)).hasValue(Collections.singleton(car.getId()));
+        } finally {
+            carService.delete(third.getId());
+        }
+        assertThat(carTextIndex.candidates(makeContains("text_ndex"))).isEmpty();
+        assertThat(carTextIndex.candidates(makeContains("te"))).isEmpty();
+        assertThat(ids(makeContains("text_ndex"))).hasSize(2);
+    }
+}
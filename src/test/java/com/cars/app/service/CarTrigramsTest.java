@@ -0,0 +1,90 @@
+package com.cars.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link CarTrigrams}, checked against a scan of random values.
+ */
+public class CarTrigramsTest {
+
+    private static final List<String> VALUES = Arrays.asList("Audi", "AUDI A4", "Alfa Romeo", "BMW", "bmw X5", "Fiat", "Fiat 500",
+        "Straße", "STRASSE", "Panda", "A", "", null);
+
+    private static final List<String> TEXTS = Arrays.asList("", "a", "A", "au", "aud", "udi", "DI A", "fiat 5", "ss", "STRASSE", "ß",
+        "romeo", "x", "zzz", "a4 ");
+
+    private final Random random = new Random(42);
+
+    private static Set<Long> expected(Map<Long, String> values, String text) {
+        return values.entrySet().stream()
+            .filter(entry -> entry.getValue() != null &&
+                entry.getValue().toUpperCase(Locale.ROOT).contains(text.toUpperCase(Locale.ROOT)))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void lookupsMatchAScan() {
+        CarTrigrams trigrams = new CarTrigrams();
+        Map<Long, String> values = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            long id = random.nextInt(200);
+            if (values.containsKey(id)) {
+                trigrams.remove(values.remove(id), id);
+            }
+            if (random.nextInt(5) != 0) {
+                String value = VALUES.get(random.nextInt(VALUES.size()));
+                trigrams.add(value, id);
+                values.put(id, value);
+            }
+            if (i % 100 == 0) {
+                for (String text : TEXTS) {
+                    if (text.toUpperCase(Locale.ROOT).length() < 3) {
+                        assertThat(trigrams.idsContaining(text, Integer.MAX_VALUE)).as(text).isEmpty();
+                    } else {
+                        assertThat(trigrams.idsContaining(text, Integer.MAX_VALUE)).as(text).hasValue(expected(values, text));
+                    }
+                }
+            }
+        }
+        assertThat(trigrams.size()).isEqualTo(values.values().stream().filter(value -> value != null).distinct().count());
+    }
+
+    @Test
+    public void removedValuesAreForgotten() {
+        CarTrigrams trigrams = new CarTrigrams();
+        trigrams.add("Audi", 1L);
+        trigrams.add("Audi", 2L);
+        trigrams.remove("Audi", 1L);
+        assertThat(trigrams.idsContaining("udi", 10)).hasValue(Collections.singleton(2L));
+
+        trigrams.remove("Audi", 2L);
+        assertThat(trigrams.idsContaining("udi", 10)).hasValue(Collections.emptySet());
+        assertThat(trigrams.size()).isZero();
+    }
+
+    @Test
+    public void lookupsStopAboveMaxIds() {
+        CarTrigrams trigrams = new CarTrigrams();
+        trigrams.add("Audi A4", 1L);
+        trigrams.add("Audi A6", 2L);
+        trigrams.add("Audi A6", 3L);
+
+        assertThat(trigrams.idsContaining("audi", 3)).hasValue(new HashSet<>(Arrays.asList(1L, 2L, 3L)));
+        assertThat(trigrams.idsContaining("audi", 2)).isEmpty();
+        assertThat(trigrams.idsContaining("a4", 3)).isEmpty();
+    }
+}
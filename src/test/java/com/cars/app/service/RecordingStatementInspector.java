@@ -0,0 +1,57 @@
+package com.cars.app.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL statements prepared by Hibernate in the current thread, so that tests can check their plans.
+ * Registered with the {@code hibernate.session_factory.statement_inspector} property of the test configuration.
+ * <p>
+ * Statements are only recorded during the tests extended with this class, for example with
+ * {@code @ExtendWith(RecordingStatementInspector.class)}, so that the other tests sharing the context do not
+ * accumulate them.
+ */
+public class RecordingStatementInspector implements StatementInspector, BeforeEachCallback, AfterEachCallback {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        STATEMENTS.remove();
+    }
+
+    public static void clear() {
+        recorded().clear();
+    }
+
+    public static List<String> statements() {
+        return new ArrayList<>(recorded());
+    }
+
+    private static List<String> recorded() {
+        List<String> statements = STATEMENTS.get();
+        if (statements == null) {
+            throw new IllegalStateException("Statements are not recorded, the test must be extended with " + RecordingStatementInspector.class.getSimpleName());
+        }
+        return statements;
+    }
+}
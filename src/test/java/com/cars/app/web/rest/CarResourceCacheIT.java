@@ -0,0 +1,225 @@
+package com.cars.app.web.rest;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.CarService;
+import com.cars.app.service.RecordingStatementInspector;
+import com.cars.app.service.dto.CarPriceAdjustment;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.hibernate.serialization.Expirable;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the {@link CarResource} REST controller with the second-level cache, which is disabled
+ * in the other tests, without the near cache, which {@link CarResourceNearCacheIT} enables.
+ * <p>
+ * Not transactional, as the second-level cache is only updated on commit.
+ */
+@SpringBootTest(classes = CarsappApp.class, properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=com.cars.app.config.hazelcast.IdKeyedHazelcastCacheRegionFactory",
+    "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=carsapp",
+    "application.bulk.chunk-size=1"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+@ExtendWith(RecordingStatementInspector.class)
+public class CarResourceCacheIT {
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private MockMvc restCarMockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    private Car car;
+
+    private Car other;
+
+    @BeforeEach
+    public void initTest() {
+        car = carService.save(new Car().make("CACHEMAKE").model("A").price(1D));
+        other = carService.save(new Car().make("CACHEMAKE").model("B").price(2D));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        for (Car saved : Arrays.asList(car, other)) {
+            if (carRepository.existsById(saved.getId())) {
+                carService.delete(saved.getId());
+            }
+        }
+    }
+
+    @Test
+    public void getCarNotModifiedWithoutDatabase() throws Exception {
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified());
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+
+        car.setPrice(2D);
+        carService.save(car);
+
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+    }
+
+    @Test
+    public void getCarsFromTheCacheFirst() throws Exception {
+        entityManagerFactory.getCache().evict(Car.class, other.getId());
+
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(post("/api/cars/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(other.getId(), Long.MAX_VALUE, car.getId()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue(), car.getId().intValue())))
+            .andExpect(jsonPath("$.[*].model").value(contains("B", "A")))
+            .andExpect(jsonPath("$.[*].version").value(contains(0, 0)));
+        // Only the evicted car and the unknown one are queried
+        assertThat(RecordingStatementInspector.statements()).hasSize(1);
+        assertThat(RecordingStatementInspector.statements().get(0)).contains(" in (");
+
+        // The evicted car has been put back in the cache
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(post("/api/cars/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(car.getId(), other.getId()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(car.getId().intValue(), other.getId().intValue())));
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+    }
+
+    @Test
+    public void cacheCarsByIdWithoutJavaSerialization() throws Exception {
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isOk());
+
+        // The keys are the ids, and the values hold a Hibernate cache item
+        IMap<Object, Expirable> region = hazelcastInstance.getMap(Car.class.getName());
+        assertThat(region.keySet()).contains(car.getId());
+        Object item = region.get(car.getId()).getValue();
+        Data data = ((SerializationServiceSupport) hazelcastInstance).getSerializationService().toData(item);
+        assertThat(data.getType()).isNotEqualTo(SerializationConstants.JAVA_DEFAULT_TYPE_SERIALIZABLE);
+        // Read from the members owning the entries, as the near cache is disabled by default
+        assertThat(hazelcastInstance.getConfig().findMapConfig(Car.class.getName()).getNearCacheConfig()).isNull();
+    }
+
+    @Test
+    public void adjustCarPricesEvictsOnlyTheAdjustedCars() throws Exception {
+        restCarMockMvc.perform(post("/api/cars/price-adjustments?make.equals=CACHEMAKE&model.equals=A")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new CarPriceAdjustment(50D, null))))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        // The other car is still in the cache
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(get("/api/cars/{id}", other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.price").value(2D));
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+
+        // The adjusted car is read from the database, then put back in the cache
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.price").value(1.5D))
+            .andExpect(jsonPath("$.version").value(1));
+        assertThat(RecordingStatementInspector.statements()).hasSize(1);
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(1));
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+    }
+
+    @Test
+    public void adjustCarPricesInChunks() throws Exception {
+        RecordingStatementInspector.clear();
+        // Locked and updated in chunks of one car, each in its own transaction
+        restCarMockMvc.perform(post("/api/cars/price-adjustments?make.equals=CACHEMAKE")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new CarPriceAdjustment(null, 1D))))
+            .andExpect(status().isOk())
+            .andExpect(content().string("2"));
+
+        List<String> locks = RecordingStatementInspector.statements().stream()
+            .filter(statement -> statement.endsWith(" for update"))
+            .collect(Collectors.toList());
+        // The last one finds no more cars
+        assertThat(locks).hasSize(3).allSatisfy(statement -> assertThat(statement).contains(" limit ?"));
+        assertThat(RecordingStatementInspector.statements()).filteredOn(statement -> statement.startsWith("update car set price"))
+            .hasSize(2);
+
+        restCarMockMvc.perform(get("/api/cars/{id}", other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.price").value(3D))
+            .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    public void deleteCarsByCriteriaEvictsOnlyTheDeletedCars() throws Exception {
+        Car third = carService.save(new Car().make("CACHEMAKE").model("A").price(3D));
+
+        // Deleted in chunks of one car
+        restCarMockMvc.perform(delete("/api/cars?make.equals=CACHEMAKE&model.equals=A"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("2"));
+
+        // The other car is still in the cache
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(get("/api/cars/{id}", other.getId()))
+            .andExpect(status().isOk());
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+
+        // The deleted cars are not read from the cache
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isNotFound());
+        restCarMockMvc.perform(get("/api/cars/{id}", third.getId()))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -5,21 +5,30 @@ import com.cars.app.domain.Car;
 import com.cars.app.repository.CarRepository;
 import com.cars.app.service.CarService;
 import com.cars.app.service.dto.CarCriteria;
+import com.cars.app.service.dto.CarPriceAdjustment;
 import com.cars.app.service.CarQueryService;
+import com.cars.app.service.RecordingStatementInspector;
 
+import io.github.jhipster.service.filter.StringFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -163,6 +172,52 @@ public class CarResourceIT {
     }
 
 
+    @Test
+    @Transactional
+    public void getCarWithETag() throws Exception {
+        // Initialize the database
+        carService.save(car);
+
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andExpect(jsonPath("$.version").value(0));
+
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        car.setPrice(UPDATED_PRICE);
+        carService.save(car);
+
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.price").value(UPDATED_PRICE));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCarsWithETag() throws Exception {
+        // Initialize the database
+        carService.save(car);
+
+        String eTag = restCarMockMvc.perform(get("/api/cars?id.equals=" + car.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"");
+
+        restCarMockMvc.perform(get("/api/cars?id.equals=" + car.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        car.setModel(UPDATED_MODEL);
+        carService.save(car);
+
+        restCarMockMvc.perform(get("/api/cars?id.equals=" + car.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].model").value(UPDATED_MODEL));
+    }
+
     @Test
     @Transactional
     public void getCarsByIdFiltering() throws Exception {
@@ -442,9 +497,198 @@ public class CarResourceIT {
         defaultCarShouldBeFound("price.greaterThan=" + SMALLER_PRICE);
     }
 
+    @Test
+    @Transactional
+    public void getAllCarsWithKeysetPagination() throws Exception {
+        // Initialize the database, including a car without a price which must come first
+        Car noPrice = carRepository.saveAndFlush(createEntity(em).price(null));
+        Car expensive = carRepository.saveAndFlush(createEntity(em).price(UPDATED_PRICE));
+        Car cheap = carRepository.saveAndFlush(createEntity(em).price(SMALLER_PRICE));
+        carRepository.saveAndFlush(car);
+
+        // First page
+        MvcResult firstPage = restCarMockMvc.perform(get("/api/cars?limit=2&make.equals=" + DEFAULT_MAKE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(noPrice.getId().intValue(), cheap.getId().intValue())))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        // Last page
+        restCarMockMvc.perform(get("/api/cars?limit=2&make.equals=" + DEFAULT_MAKE + "&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(car.getId().intValue(), expensive.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @Transactional
+    public void getAllCarsWithInvalidCursor() throws Exception {
+        restCarMockMvc.perform(get("/api/cars?limit=2&cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+
+        restCarMockMvc.perform(get("/api/cars?limit=0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllCarsWithFieldsAndKeysetPagination() throws Exception {
+        // Initialize the database
+        Car expensive = carRepository.saveAndFlush(createEntity(em).model(UPDATED_MODEL).price(UPDATED_PRICE));
+        carRepository.saveAndFlush(car);
+
+        // First page, without the price and the id which position the next one
+        MvcResult firstPage = restCarMockMvc.perform(get("/api/cars?fields=model&limit=1&make.equals=" + DEFAULT_MAKE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].model").value(contains(DEFAULT_MODEL)))
+            .andExpect(jsonPath("$.[0].id").doesNotExist())
+            .andExpect(jsonPath("$.[0].price").doesNotExist())
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn();
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        // Last page
+        restCarMockMvc.perform(get("/api/cars?fields=id,model&limit=1&make.equals=" + DEFAULT_MAKE + "&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(expensive.getId().intValue())))
+            .andExpect(jsonPath("$.[*].model").value(contains(UPDATED_MODEL)))
+            .andExpect(jsonPath("$.[0].price").doesNotExist())
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        restCarMockMvc.perform(get("/api/cars?fields=unknown&limit=1"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getAllCarsWithFields() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        restCarMockMvc.perform(get("/api/cars?id.equals={id}&fields=price,id", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(car.getId().intValue()))
+            .andExpect(jsonPath("$.[0].price").value(DEFAULT_PRICE.doubleValue()))
+            .andExpect(jsonPath("$.[0].make").doesNotExist())
+            .andExpect(jsonPath("$.[0].model").doesNotExist());
+
+        restCarMockMvc.perform(get("/api/cars?fields=id,color"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void getCarWithFields() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        restCarMockMvc.perform(get("/api/cars/{id}?fields=make", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.make").value(DEFAULT_MAKE))
+            .andExpect(jsonPath("$.id").doesNotExist())
+            .andExpect(jsonPath("$.price").doesNotExist());
+
+        restCarMockMvc.perform(get("/api/cars/{id}?fields=id", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getCarFacets() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        carRepository.saveAndFlush(createUpdatedEntity(em));
+        carRepository.saveAndFlush(createEntity(em).price(null));
+
+        restCarMockMvc.perform(get("/api/cars/facets?make.in=" + DEFAULT_MAKE + "," + UPDATED_MAKE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.count").value(3))
+            .andExpect(jsonPath("$.makes." + DEFAULT_MAKE).value(2))
+            .andExpect(jsonPath("$.makes." + UPDATED_MAKE).value(1))
+            .andExpect(jsonPath("$.models." + UPDATED_MODEL).value(1))
+            .andExpect(jsonPath("$.prices.length()").value(1))
+            .andExpect(jsonPath("$.prices[0].from").value(0D))
+            .andExpect(jsonPath("$.prices[0].count").value(2))
+            .andExpect(jsonPath("$.minPrice").value(DEFAULT_PRICE))
+            .andExpect(jsonPath("$.maxPrice").value(UPDATED_PRICE))
+            .andExpect(jsonPath("$.averagePrice").value((DEFAULT_PRICE + UPDATED_PRICE) / 2));
+
+        restCarMockMvc.perform(get("/api/cars/facets?make.equals=UNKNOWN"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(0))
+            .andExpect(jsonPath("$.prices").isEmpty())
+            .andExpect(jsonPath("$.averagePrice").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    public void exportCars() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        Car other = carRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Export as a JSON array
+        restCarMockMvc.perform(get("/api/cars/export?id.in=" + car.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(car.getId().intValue(), other.getId().intValue())))
+            .andExpect(jsonPath("$.[*].make").value(contains(DEFAULT_MAKE, UPDATED_MAKE)));
+
+        // Export as newline-delimited JSON
+        String body = restCarMockMvc.perform(get("/api/cars/export?format=ndjson&id.in=" + car.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":" + car.getId() + ",").endsWith("}");
+        assertThat(lines[1]).startsWith("{\"id\":" + other.getId() + ",").endsWith("}");
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
+    @Test
+    public void importCars() throws Exception {
+        String csv = "id;make;model;price\n" +
+            "1;IMPORTEDMAKE;A;1\n" +
+            "2;IMPORTEDMAKE;B;not a price\n";
+        try {
+            restCarMockMvc.perform(post("/api/cars/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"lines\":2,\"imported\":1,\"invalid\":1,\"failed\":0,\"done\":true")));
+
+            restCarMockMvc.perform(get("/api/cars?make.equals=IMPORTEDMAKE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].model").value(contains("A")));
+        } finally {
+            StringFilter make = new StringFilter();
+            make.setEquals("IMPORTEDMAKE");
+            CarCriteria criteria = new CarCriteria();
+            criteria.setMake(make);
+            carService.deleteAll(criteria);
+        }
+    }
+
+    @Test
+    public void importCarsWithInvalidHeader() throws Exception {
+        restCarMockMvc.perform(post("/api/cars/import")
+            .contentType("text/csv")
+            .content("id;name\n1;IMPORTEDMAKE\n"))
+            .andExpect(status().isBadRequest());
+    }
+
     private void defaultCarShouldBeFound(String filter) throws Exception {
         restCarMockMvc.perform(get("/api/cars?sort=id,desc&" + filter))
             .andExpect(status().isOk())
@@ -517,6 +761,41 @@ public class CarResourceIT {
         assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
     }
 
+    @Test
+    @Transactional
+    public void updateCarWithIfMatch() throws Exception {
+        // Initialize the database
+        carService.save(car);
+        Car updatedCar = createUpdatedEntity(em);
+        updatedCar.setId(car.getId());
+
+        restCarMockMvc.perform(put("/api/cars")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(updatedCar)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // The car has been modified since version 0
+        Car staleCar = createEntity(em);
+        staleCar.setId(car.getId());
+        restCarMockMvc.perform(put("/api/cars")
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(staleCar)))
+            .andExpect(status().isConflict());
+        restCarMockMvc.perform(put("/api/cars")
+            .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(staleCar)))
+            .andExpect(status().isConflict());
+
+        Car testCar = carRepository.findById(car.getId()).get();
+        assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
+        assertThat(testCar.getVersion()).isEqualTo(1L);
+    }
+
     @Test
     @Transactional
     public void updateNonExistingCar() throws Exception {
@@ -533,6 +812,210 @@ public class CarResourceIT {
         assertThat(carList).hasSize(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    @ExtendWith(RecordingStatementInspector.class)
+    public void partialUpdateCar() throws Exception {
+        // Initialize the database
+        carService.save(car);
+        Car partialCar = new Car().model(UPDATED_MODEL);
+
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(patch("/api/cars/{id}", car.getId())
+            .contentType("application/merge-patch+json")
+            .content(TestUtil.convertObjectToJsonBytes(partialCar)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.make").value(DEFAULT_MAKE))
+            .andExpect(jsonPath("$.model").value(UPDATED_MODEL))
+            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE))
+            .andExpect(jsonPath("$.version").value(1));
+        // Only the changed column is written
+        assertThat(RecordingStatementInspector.statements()).filteredOn(sql -> sql.startsWith("update"))
+            .containsExactly("update car set model=?, version=? where id=? and version=?");
+
+        Car testCar = carRepository.findById(car.getId()).get();
+        assertThat(testCar.getMake()).isEqualTo(DEFAULT_MAKE);
+        assertThat(testCar.getModel()).isEqualTo(UPDATED_MODEL);
+    }
+
+    @Test
+    @Transactional
+    public void partialUpdateCarWithIfMatch() throws Exception {
+        // Initialize the database
+        carService.save(car);
+        car.setPrice(UPDATED_PRICE);
+        carService.save(car);
+
+        // The car has been modified since version 0
+        restCarMockMvc.perform(patch("/api/cars/{id}", car.getId())
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new Car().make(UPDATED_MAKE))))
+            .andExpect(status().isConflict());
+        restCarMockMvc.perform(patch("/api/cars/{id}", car.getId())
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new Car().make(UPDATED_MAKE))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.make").value(UPDATED_MAKE))
+            .andExpect(jsonPath("$.price").value(UPDATED_PRICE))
+            .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    @Transactional
+    public void partialUpdateNonExistingCar() throws Exception {
+        restCarMockMvc.perform(patch("/api/cars/{id}", Long.MAX_VALUE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new Car().make(UPDATED_MAKE))))
+            .andExpect(status().isNotFound());
+
+        // The id of the body must be the one of the path
+        carService.save(car);
+        Car otherCar = new Car().make(UPDATED_MAKE);
+        otherCar.setId(car.getId() + 1);
+        restCarMockMvc.perform(patch("/api/cars/{id}", car.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(otherCar)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    @ExtendWith(RecordingStatementInspector.class)
+    public void adjustCarPrices() throws Exception {
+        // Initialize the database
+        carService.save(car);
+        Car otherCar = carService.save(createUpdatedEntity(em));
+        Car carWithoutPrice = carService.save(createEntity(em).price(null));
+        String criteria = "?make.equals=" + DEFAULT_MAKE + "&id.in=" + car.getId() + "," + otherCar.getId() + "," + carWithoutPrice.getId();
+
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(post("/api/cars/price-adjustments" + criteria)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new CarPriceAdjustment(10D, null))))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+        // The matching rows are locked, then updated with a single statement
+        assertThat(RecordingStatementInspector.statements()).hasSize(2);
+        assertThat(RecordingStatementInspector.statements().get(0)).endsWith(" for update");
+        assertThat(RecordingStatementInspector.statements().get(1)).startsWith("update car set price = price * ?");
+        restCarMockMvc.perform(post("/api/cars/price-adjustments" + criteria)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new CarPriceAdjustment(null, -0.5D))))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        // The cars of the persistence context have been detached, so they are read again
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE * 1.1D - 0.5D))
+            .andExpect(jsonPath("$.version").value(2));
+        assertThat(carRepository.findById(otherCar.getId()).get().getPrice()).isEqualTo(UPDATED_PRICE);
+        assertThat(carRepository.findById(otherCar.getId()).get().getVersion()).isEqualTo(0L);
+        assertThat(carRepository.findById(carWithoutPrice.getId()).get().getVersion()).isEqualTo(0L);
+    }
+
+    @Test
+    @Transactional
+    public void adjustCarPricesWithInvalidAdjustment() throws Exception {
+        restCarMockMvc.perform(post("/api/cars/price-adjustments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new CarPriceAdjustment(10D, 1D))))
+            .andExpect(status().isBadRequest());
+        restCarMockMvc.perform(post("/api/cars/price-adjustments")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(new CarPriceAdjustment())))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void createCarsInBulk() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+        Car withId = createUpdatedEntity(em);
+        withId.setId(1L);
+
+        restCarMockMvc.perform(post("/api/cars/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(car, withId, createUpdatedEntity(em)))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2)))
+            .andExpect(jsonPath("$.[*].status").value(contains("CREATED", "INVALID", "CREATED")))
+            .andExpect(jsonPath("$.[0].id").isNumber());
+
+        // Validate the Cars in the database
+        List<Car> carList = carRepository.findAll();
+        assertThat(carList).hasSize(databaseSizeBeforeCreate + 2);
+        assertThat(carList).extracting(Car::getMake).contains(DEFAULT_MAKE, UPDATED_MAKE);
+    }
+
+    @Test
+    @Transactional
+    public void updateCarsInBulk() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        em.detach(car);
+
+        Car updatedCar = createUpdatedEntity(em);
+        updatedCar.setId(car.getId());
+        Car nonExisting = createUpdatedEntity(em);
+        nonExisting.setId(Long.MAX_VALUE);
+
+        restCarMockMvc.perform(put("/api/cars/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(updatedCar, nonExisting, createEntity(em)))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("UPDATED", "NOT_FOUND", "INVALID")))
+            .andExpect(jsonPath("$.[0].id").value(car.getId().intValue()));
+
+        // Validate the Car in the database
+        Car testCar = carRepository.findById(car.getId()).get();
+        assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
+        assertThat(testCar.getModel()).isEqualTo(UPDATED_MODEL);
+        assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    public void updateCarsInBulkWithStaleVersion() throws Exception {
+        // Initialize the database
+        carService.save(car);
+
+        Car staleCar = createUpdatedEntity(em);
+        staleCar.setId(car.getId());
+        staleCar.setVersion(car.getVersion() + 1);
+
+        restCarMockMvc.perform(put("/api/cars/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(staleCar))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains("CONFLICT")));
+
+        assertThat(carRepository.findById(car.getId()).get().getMake()).isEqualTo(DEFAULT_MAKE);
+    }
+
+    @Test
+    @Transactional
+    public void getCarsByIds() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        Car other = carRepository.saveAndFlush(createUpdatedEntity(em));
+
+        restCarMockMvc.perform(post("/api/cars/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(other.getId(), Long.MAX_VALUE, car.getId()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue(), car.getId().intValue())))
+            .andExpect(jsonPath("$.[*].make").value(contains(UPDATED_MAKE, DEFAULT_MAKE)));
+
+        restCarMockMvc.perform(post("/api/cars/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[1, null]"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void deleteCar() throws Exception {
@@ -550,4 +1033,41 @@ public class CarResourceIT {
         List<Car> carList = carRepository.findAll();
         assertThat(carList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    public void deleteCarsByCriteria() throws Exception {
+        // Initialize the database
+        carService.save(car);
+        Car otherCar = carService.save(createUpdatedEntity(em));
+
+        int databaseSizeBeforeDelete = carRepository.findAll().size();
+
+        // Delete the cars
+        restCarMockMvc.perform(delete("/api/cars?make.equals=" + DEFAULT_MAKE + "&id.in=" + car.getId() + "," + otherCar.getId())
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+
+        // Validate the database contains one less item
+        List<Car> carList = carRepository.findAll();
+        assertThat(carList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(carRepository.existsById(car.getId())).isFalse();
+        assertThat(carRepository.existsById(otherCar.getId())).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void deleteCarsWithoutCriteria() throws Exception {
+        // Initialize the database
+        carService.save(car);
+
+        int databaseSizeBeforeDelete = carRepository.findAll().size();
+
+        restCarMockMvc.perform(delete("/api/cars")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+
+        assertThat(carRepository.findAll()).hasSize(databaseSizeBeforeDelete);
+    }
 }
@@ -0,0 +1,103 @@
+package com.cars.app.web.rest;
+
+import com.cars.app.CarsappApp;
+import com.cars.app.domain.Car;
+import com.cars.app.repository.CarRepository;
+import com.cars.app.service.CarService;
+import com.cars.app.service.RecordingStatementInspector;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the {@link CarResource} REST controller with the near cache of the second-level cache regions.
+ * <p>
+ * The near cache is configured on the Hazelcast instance, which is shared by the test contexts using the same
+ * instance name, so this one uses its own instance.
+ */
+@SpringBootTest(classes = CarsappApp.class, properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=com.cars.app.config.hazelcast.IdKeyedHazelcastCacheRegionFactory",
+    "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=carsapp-near-cache",
+    "application.near-cache.enabled=true"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+@ExtendWith(RecordingStatementInspector.class)
+public class CarResourceNearCacheIT {
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private MockMvc restCarMockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Car car;
+
+    @BeforeEach
+    public void initTest() {
+        car = carService.save(new Car().make("NEARMAKE").model("A").price(1D));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (carRepository.existsById(car.getId())) {
+            carService.delete(car.getId());
+        }
+    }
+
+    @Test
+    public void getCarFromTheNearCache() throws Exception {
+        // Read from the second-level cache, unlike a single car, which is then cached by CarService
+        restCarMockMvc.perform(post("/api/cars/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(car.getId()))))
+            .andExpect(status().isOk());
+        double hits = nearCacheMeter("hazelcast.cache.near.gets", "result", "hit");
+        restCarMockMvc.perform(post("/api/cars/_mget")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(car.getId()))))
+            .andExpect(status().isOk());
+        assertThat(nearCacheMeter("hazelcast.cache.near.gets", "result", "hit")).isEqualTo(hits + 1);
+
+        // An update invalidates the near cache
+        double invalidations = nearCacheMeter("hazelcast.cache.near.invalidations");
+        car.setPrice(3D);
+        carService.save(car);
+        assertThat(nearCacheMeter("hazelcast.cache.near.invalidations")).isGreaterThan(invalidations);
+
+        RecordingStatementInspector.clear();
+        restCarMockMvc.perform(get("/api/cars/{id}", car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.price").value(3D))
+            .andExpect(jsonPath("$.version").value(1));
+        assertThat(RecordingStatementInspector.statements()).isEmpty();
+    }
+
+    private double nearCacheMeter(String name, String... tags) {
+        return meterRegistry.get(name).tag("name", Car.class.getName()).tags(tags).meter().measure().iterator().next().getValue();
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -79,6 +80,26 @@ class CarsappKafkaResourceIT {
         assertThat(record.value()).isEqualTo("value-produce");
     }
 
+    @Test
+    void producesBatchOfMessages() throws Exception {
+        MvcResult mvcResult = restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-batch/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"key\":\"key-batch\",\"message\":\"value-batch-1\"},{\"key\":\"key-batch\",\"message\":\"value-batch-2\"}]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restMockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].offset").value(0))
+            .andExpect(jsonPath("$[1].offset").value(1));
+
+        Map<String, Object> consumerProps = new HashMap<>(getConsumerProps("group-batch"));
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerProps);
+        consumer.subscribe(Collections.singletonList("topic-batch"));
+        ConsumerRecords<String, String> records = consumer.poll(Duration.ofSeconds(1));
+
+        assertThat(records).extracting(ConsumerRecord::value).containsExactly("value-batch-1", "value-batch-2");
+    }
+
     @Test
     void consumesMessages() throws Exception {
         Map<String, Object> producerProps = new HashMap<>(getProducerProps());
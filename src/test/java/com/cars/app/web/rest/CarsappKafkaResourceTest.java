@@ -0,0 +1,129 @@
+package com.cars.app.web.rest;
+
+import com.cars.app.config.KafkaProperties;
+import com.cars.app.web.rest.errors.ExceptionTranslator;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the asynchronous publishing of {@link CarsappKafkaResource}, with a producer acknowledging the messages
+ * on demand.
+ */
+class CarsappKafkaResourceTest {
+
+    private MockProducer<String, String> producer;
+
+    private MockMvc restMockMvc;
+
+    @BeforeEach
+    void setup() {
+        producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        CarsappKafkaResource kafkaResource = new CarsappKafkaResource(new KafkaProperties(), producer);
+        restMockMvc = MockMvcBuilders.standaloneSetup(kafkaResource)
+            .setControllerAdvice(new ExceptionTranslator())
+            .build();
+    }
+
+    @Test
+    void publishAsynchronously() throws Exception {
+        MvcResult mvcResult = restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-async/async?message=value-async&key=key-async"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(producer.history()).extracting(ProducerRecord::value).containsExactly("value-async");
+        assertThatThrownBy(() -> mvcResult.getAsyncResult(0)).isInstanceOf(IllegalStateException.class);
+
+        producer.completeNext();
+
+        restMockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.topic").value("topic-async"))
+            .andExpect(jsonPath("$.offset").value(0));
+    }
+
+    @Test
+    void publishAsynchronouslyFailsWithoutSending() throws Exception {
+        // Throws on send
+        producer.close();
+
+        MvcResult mvcResult = restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-async/async?message=value-async"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restMockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void publishBatch() throws Exception {
+        MvcResult mvcResult = restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-batch/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"key\":\"1\",\"message\":\"first\"},{\"message\":\"second\"}]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(producer.history()).extracting(ProducerRecord::key).containsExactly("1", null);
+        assertThat(producer.history()).extracting(ProducerRecord::value).containsExactly("first", "second");
+
+        producer.completeNext();
+        assertThatThrownBy(() -> mvcResult.getAsyncResult(0)).isInstanceOf(IllegalStateException.class);
+        producer.completeNext();
+
+        restMockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].offset").value(0))
+            .andExpect(jsonPath("$[1].offset").value(1));
+    }
+
+    @Test
+    void publishBatchFailsWithAnyMessage() throws Exception {
+        MvcResult mvcResult = restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-batch/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"message\":\"first\"},{\"message\":\"second\"}]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        producer.completeNext();
+        producer.errorNext(new IllegalStateException("Broker unavailable"));
+
+        restMockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void publishBatchWithoutMessage() throws Exception {
+        restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-batch/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"key\":\"1\"}]"))
+            .andExpect(status().isBadRequest());
+
+        assertThat(producer.history()).isEmpty();
+    }
+
+    @Test
+    void publishBatchTooLarge() throws Exception {
+        String messages = String.join(",", Collections.nCopies(10001, "{\"message\":\"car\"}"));
+        restMockMvc.perform(post("/api/carsapp-kafka/publish/topic-batch/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[" + messages + "]"))
+            .andExpect(status().isBadRequest());
+
+        assertThat(producer.history()).isEmpty();
+    }
+}
@@ -0,0 +1,154 @@
+package com.cars.app.reactive;
+
+import com.cars.app.security.AuthoritiesConstants;
+import com.cars.app.security.jwt.TokenProvider;
+import com.cars.app.web.rest.CarResource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * Integration tests for the routes of {@link CarReactiveHandler}, served by Netty from an in-memory H2 database.
+ */
+@SpringBootTest(classes = CarsappReactiveApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.main.web-application-type=reactive",
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1"
+})
+public class CarReactiveHandlerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    private String authorization;
+
+    @BeforeEach
+    public void initTest() {
+        // The schema is owned by the Liquibase changelog of the main application, which this one does not run
+        databaseClient.execute("drop table if exists car").then().block();
+        databaseClient.execute("create table car (id bigint primary key, make varchar(255), model varchar(255), price double, " +
+            "version bigint)").then().block();
+        insert(1L, "AAAAAAAAAA", "BBBBBBBBBB", 3D);
+        insert(2L, "AAAAAAAAAA", "CCCCCCCCCC", 1D);
+        insert(3L, "DDDDDDDDDD", "BBBBBBBBBB", null);
+        insert(4L, "AAAAAAAAAA", "BBBBBBBBBB", 2D);
+        authorization = "Bearer " + tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+    }
+
+    private void insert(Long id, String make, String model, Double price) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+            .execute("insert into car (id, make, model, price, version) values (:id, :make, :model, :price, 0)")
+            .bind("id", id)
+            .bind("make", make)
+            .bind("model", model);
+        spec = price == null ? spec.bindNull("price", Double.class) : spec.bind("price", price);
+        spec.then().block();
+    }
+
+    @Test
+    public void getAllCarsRequiresAuthentication() {
+        webTestClient.get().uri("/api/cars").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/cars/count").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/cars/1").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/cars").header(HttpHeaders.AUTHORIZATION, "Bearer invalid").exchange()
+            .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void getAllCars() {
+        webTestClient.get().uri("/api/cars?make.equals=AAAAAAAAAA").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectHeader().doesNotExist(CarResource.NEXT_CURSOR_HEADER)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(3)
+            .jsonPath("$[0].id").isEqualTo(2)
+            .jsonPath("$[1].id").isEqualTo(4)
+            .jsonPath("$[2].id").isEqualTo(1)
+            .jsonPath("$[2].model").isEqualTo("BBBBBBBBBB")
+            .jsonPath("$[2].price").isEqualTo(3D);
+    }
+
+    @Test
+    public void getAllCarsByPages() {
+        String next = webTestClient.get().uri("/api/cars?limit=2").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isOk()
+            .expectHeader().value(HttpHeaders.LINK, containsString("rel=\"next\""))
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            // Cars without a price first, as in CarResource
+            .jsonPath("$[0].id").isEqualTo(3)
+            .jsonPath("$[1].id").isEqualTo(2)
+            .returnResult()
+            .getResponseHeaders().getFirst(CarResource.NEXT_CURSOR_HEADER);
+        assertThat(next).isNotNull();
+
+        webTestClient.get().uri("/api/cars?limit=2&cursor=" + next).header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isOk()
+            .expectHeader().doesNotExist(CarResource.NEXT_CURSOR_HEADER)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].id").isEqualTo(4)
+            .jsonPath("$[1].id").isEqualTo(1);
+    }
+
+    @Test
+    public void getAllCarsWithInvalidPage() {
+        webTestClient.get().uri("/api/cars?limit=" + (CarResource.MAX_PAGE_LIMIT + 1)).header(HttpHeaders.AUTHORIZATION, authorization)
+            .exchange()
+            .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/cars?limit=0").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/cars?cursor=invalid").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/cars?price.greaterThan=cheap").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void countCars() {
+        webTestClient.get().uri("/api/cars/count?model.equals=BBBBBBBBBB").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isOk()
+            .expectBody(Long.class).isEqualTo(3L);
+        webTestClient.get().uri("/api/cars/count?price.specified=false").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isOk()
+            .expectBody(Long.class).isEqualTo(1L);
+    }
+
+    @Test
+    public void getCar() {
+        webTestClient.get().uri("/api/cars/4").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(4)
+            .jsonPath("$.make").isEqualTo("AAAAAAAAAA");
+    }
+
+    @Test
+    public void getNonExistingCar() {
+        webTestClient.get().uri("/api/cars/" + Long.MAX_VALUE).header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isNotFound();
+        webTestClient.get().uri("/api/cars/abc").header(HttpHeaders.AUTHORIZATION, authorization).exchange()
+            .expectStatus().isBadRequest();
+    }
+}